@@ -0,0 +1,148 @@
+package battleship;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Two {@link ComputerAI}s playing each other on an engine thread. The engine owns its boards and
+ * publishes every shot to a single-producer single-consumer queue; it never waits for the UI, which
+ * polls the queue once per frame and applies whatever arrived to its own copies of the boards.
+ * The queue holds more shots than one match can have, so a slow reader never stalls the engine.
+ */
+final class AiMatch {
+    /** One published shot; {@code onFirstBoard} means the second AI fired at the first AI's fleet. */
+    static final class Shot {
+        private final int sequence;
+        private final boolean onFirstBoard;
+        private final int row;
+        private final int col;
+        private final ShotOutcome outcome;
+
+        private Shot(int sequence, boolean onFirstBoard, int row, int col, ShotOutcome outcome) {
+            this.sequence = sequence;
+            this.onFirstBoard = onFirstBoard;
+            this.row = row;
+            this.col = col;
+            this.outcome = outcome;
+        }
+
+        int getSequence() {
+            return sequence;
+        }
+
+        boolean isOnFirstBoard() {
+            return onFirstBoard;
+        }
+
+        int getRow() {
+            return row;
+        }
+
+        int getCol() {
+            return col;
+        }
+
+        ShotOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    private final Board firstBoard;
+    private final Board secondBoard;
+    private final ComputerAI firstAi = new ComputerAI();
+    private final ComputerAI secondAi = new ComputerAI();
+    private final SpscQueue<Shot> shots = new SpscQueue<>(2 * Board.SIZE * Board.SIZE);
+    private volatile long shotDelayNanos;
+    private volatile boolean cancelled;
+    private Thread thread;
+
+    /** The boards belong to the engine once started; show copies of them (see {@link Board#copyFleet}). */
+    AiMatch(Board firstBoard, Board secondBoard, ComputerAI.Strategy first, ComputerAI.Strategy second) {
+        this.firstBoard = firstBoard;
+        this.secondBoard = secondBoard;
+        firstAi.setStrategy(first);
+        secondAi.setStrategy(second);
+    }
+
+    ComputerAI.Strategy getFirstStrategy() {
+        return firstAi.getStrategy();
+    }
+
+    ComputerAI.Strategy getSecondStrategy() {
+        return secondAi.getStrategy();
+    }
+
+    /** Pause between shots; 0 plays as fast as the AIs can think. Takes effect on the next shot. */
+    void setShotDelay(int millis) {
+        shotDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        Thread running = thread;
+        if (running != null) {
+            LockSupport.unpark(running);
+        }
+    }
+
+    void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Матч уже запущено");
+        }
+        thread = new Thread(this::run, "ai-vs-ai");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void cancel() {
+        cancelled = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /** Next published shot, or null if the engine has not produced one yet; consumer thread only. */
+    Shot poll() {
+        return shots.poll();
+    }
+
+    private void run() {
+        boolean firstToMove = true;
+        int sequence = 0;
+        while (!cancelled) {
+            Board target = firstToMove ? secondBoard : firstBoard;
+            ComputerAI shooter = firstToMove ? firstAi : secondAi;
+            Point point = shooter.chooseTarget(target);
+            if (point == null) {
+                return;
+            }
+            ShotResult result = target.fireAt(point.x, point.y);
+            shooter.handleShotResult(point, result);
+            if (result.getOutcome() == ShotOutcome.ALREADY) {
+                continue;
+            }
+            if (result.getOutcome() == ShotOutcome.SUNK && target.containsShip(result.getShip())) {
+                target.markSurroundingCellsAsMiss(result.getShip());
+            }
+            publish(new Shot(++sequence, target == firstBoard, point.x, point.y, result.getOutcome()));
+            if (target.allShipsSunk()) {
+                return;
+            }
+            if (result.getOutcome() == ShotOutcome.MISS) {
+                firstToMove = !firstToMove;
+            }
+            pause();
+        }
+    }
+
+    private void publish(Shot shot) {
+        while (!shots.offer(shot) && !cancelled) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void pause() {
+        long deadline = System.nanoTime() + shotDelayNanos;
+        long left;
+        while (!cancelled && (left = Math.min(shotDelayNanos, deadline - System.nanoTime())) > 0) {
+            LockSupport.parkNanos(this, left);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.swing.Timer;
+
+/**
+ * Timed UI work driven by one Swing timer at frame rate: delayed actions such as turn delays and
+ * AI volleys, and cell effects on {@link BoardView}s. The timer only runs while something is
+ * pending. In turbo mode delays and effects collapse to zero and due actions run back to back
+ * within a per-tick budget, so long AI matches are not limited by the frame rate. Frame callbacks
+ * run once per tick for as long as they are registered, e.g. to poll work produced elsewhere. EDT only.
+ */
+final class AnimationEngine {
+    static final int SHOT_MS = 180;
+    static final int SPLASH_MS = 320;
+    static final int SINK_MS = 480;
+
+    private static final int FRAME_MS = 16;
+    private static final long TURBO_BUDGET_NANOS = 8_000_000L;
+
+    /** A scheduled action; cancelling it before it is due means it never runs. */
+    static final class Task implements Comparable<Task> {
+        private final long due;
+        private final long sequence;
+        private final Runnable action;
+        private boolean cancelled;
+
+        private Task(long due, long sequence, Runnable action) {
+            this.due = due;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Effect {
+        private final BoardView view;
+        private final int row;
+        private final int col;
+        private final int kind;
+        private final long start;
+        private final long duration;
+
+        private Effect(BoardView view, int row, int col, int kind, long start, long duration) {
+            this.view = view;
+            this.row = row;
+            this.col = col;
+            this.kind = kind;
+            this.start = start;
+            this.duration = duration;
+        }
+    }
+
+    private final Timer timer = new Timer(FRAME_MS, e -> tick());
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private final List<Effect> effects = new ArrayList<>();
+    private final List<Runnable> frameCallbacks = new ArrayList<>();
+    private long sequence;
+    private boolean turbo;
+
+    AnimationEngine() {
+        timer.setCoalesce(true);
+    }
+
+    boolean isTurbo() {
+        return turbo;
+    }
+
+    void setTurbo(boolean turbo) {
+        this.turbo = turbo;
+        if (turbo) {
+            clearEffects();
+        }
+    }
+
+    Task schedule(int delayMs, Runnable action) {
+        long due = System.nanoTime() + (turbo ? 0 : delayMs * 1_000_000L);
+        Task task = new Task(due, sequence++, action);
+        tasks.add(task);
+        timer.start();
+        return task;
+    }
+
+    /** Plays {@code kind} on one cell of {@code view}; skipped entirely in turbo mode. */
+    void effect(BoardView view, int row, int col, int kind, int durationMs) {
+        if (turbo) {
+            return;
+        }
+        effects.add(new Effect(view, row, col, kind, System.nanoTime(), durationMs * 1_000_000L));
+        view.setEffect(row, col, kind, 0f);
+        timer.start();
+    }
+
+    /** Runs {@code callback} on every frame until it is removed; turbo does not change the rate. */
+    void addFrameCallback(Runnable callback) {
+        frameCallbacks.add(callback);
+        timer.start();
+    }
+
+    void removeFrameCallback(Runnable callback) {
+        frameCallbacks.remove(callback);
+    }
+
+    /** Drops all effects, frame callbacks and pending actions, e.g. when the game screen is left. */
+    void cancelAll() {
+        for (Task task : tasks) {
+            task.cancel();
+        }
+        tasks.clear();
+        frameCallbacks.clear();
+        clearEffects();
+        timer.stop();
+    }
+
+    private void clearEffects() {
+        for (Effect effect : effects) {
+            effect.view.setEffect(effect.row, effect.col, BoardView.EFFECT_NONE, 0f);
+        }
+        effects.clear();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        for (Iterator<Effect> it = effects.iterator(); it.hasNext();) {
+            Effect effect = it.next();
+            float progress = (now - effect.start) / (float) effect.duration;
+            if (progress >= 1f) {
+                effect.view.setEffect(effect.row, effect.col, BoardView.EFFECT_NONE, 0f);
+                it.remove();
+            } else {
+                effect.view.setEffect(effect.row, effect.col, effect.kind, progress);
+            }
+        }
+        for (Runnable callback : new ArrayList<>(frameCallbacks)) {
+            callback.run();
+        }
+        long deadline = now + TURBO_BUDGET_NANOS;
+        while (!tasks.isEmpty()) {
+            long time = turbo ? System.nanoTime() : now;
+            if (tasks.peek().due > time || time > deadline) {
+                break;
+            }
+            Task task = tasks.poll();
+            if (!task.cancelled) {
+                task.action.run();
+            }
+        }
+        if (tasks.isEmpty() && effects.isEmpty() && frameCallbacks.isEmpty()) {
+            timer.stop();
+        }
+    }
+}
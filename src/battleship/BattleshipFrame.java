@@ -3,48 +3,75 @@ package battleship;
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.GridLayout;
+import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.IOException;
 import java.net.Socket;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.BorderFactory;
 import javax.swing.AbstractAction;
 import javax.swing.ButtonGroup;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JLayeredPane;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
+import javax.swing.JScrollPane;
 import javax.swing.JDialog;
 import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
 import javax.swing.KeyStroke;
 
 class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     private enum Screen {
-        MENU, GAME
-    }
-
-    private static final Color PLAYER_SHIP = new Color(0x90a4ae);
-    private static final Color FOG = new Color(0xeceff1);
-    private static final Color MISS = new Color(0x90caf9);
-    private static final Color HIT = new Color(0xef9a9a);
-    private static final Color SUNK = new Color(0xe64a19);
+        MENU, GAME, REPLAY
+    }
+
+    static final Color PLAYER_SHIP = new Color(0x90a4ae);
+    static final Color FOG = new Color(0xeceff1);
+    static final Color MISS = new Color(0x90caf9);
+    static final Color HIT = new Color(0xef9a9a);
+    static final Color SUNK = new Color(0xe64a19);
+    private static final int TURN_DELAY_MS = 1000;
+    private static final int AI_VOLLEY_MS = 350;
+    private static final int SPECTATOR_SHOT_MS = 800;
+    private static final Integer[] SPECTATOR_SPEEDS = {1, 2, 4, 8};
+    private static final ExecutorService AI_EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "battleship-ai");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel mainPanel = new JPanel(cardLayout);
@@ -52,7 +79,8 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     private JPanel menuPanel;
     private JPanel gamePanel;
 
-    private final StatisticsManager statisticsManager = StatisticsManager.load();
+    private final Preloader preloader;
+    private StatisticsManager statisticsManager;
     private GameController controller;
     private GameMode currentMode = GameMode.VS_AI;
     private boolean placementMode = false;
@@ -67,23 +95,41 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     private JLabel remainingShipsLabel;
     private JButton placementDoneButton;
     private JPanel placementControls;
-    private JButton[][] playerButtons;
-    private JButton[][] aiButtons;
+    private BoardView playerView;
+    private BoardView aiView;
+    private Board shownSelfBoard;
+    private Board shownTargetBoard;
     private JLabel statusLabel;
     private JButton newGameButton;
     private JButton backToMenuButton;
     private JButton saveGameButton;
+    private JButton undoButton;
+    private JButton redoButton;
     private JLabel statsLabel;
-    private Timer turnDelayTimer;
+    private final AnimationEngine animations = new AnimationEngine();
+    private AnimationEngine.Task turnDelay;
+    private JCheckBox turboToggle;
+    private JCheckBox hintsToggle;
+    private final HintEngine hintEngine = new HintEngine(this::showHints);
+    private CompletableFuture<Point> aiTurn;
+    private AtomicBoolean aiTurnCancelled;
+    private JComboBox<Integer> speedCombo;
+    private JLabel speedLabel;
+    private AiMatch spectatorMatch;
+    private final Runnable spectatorFrame = this::drainSpectatorShots;
     private OnlineMatch onlineMatch;
+    private MoveJournal moveJournal;
+    private ReplayPanel replayPanel;
     private JCheckBox fullscreenToggle;
     private boolean fullscreen;
+    private final MonitorOverlay monitorOverlay = new MonitorOverlay();
     private Rectangle windowedBounds;
 
     private Language currentLanguage = Language.UKRAINIAN;
 
-    BattleshipFrame() {
+    BattleshipFrame(Preloader preloader) {
         super(Localization.t("window.title", Language.UKRAINIAN));
+        this.preloader = preloader;
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
         setResizable(false);
@@ -100,14 +146,62 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                 toggleFullscreen();
             }
         });
+        getLayeredPane().add(monitorOverlay, JLayeredPane.POPUP_LAYER);
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke("F12"), "toggleMonitor");
+        getRootPane().getActionMap().put("toggleMonitor", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                monitorOverlay.toggle();
+            }
+        });
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke("F10"), "dumpTrace");
+        getRootPane().getActionMap().put("dumpTrace", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dumpMatchTrace();
+            }
+        });
+        if (Boolean.getBoolean("battleship.debug.edtMonitor")) {
+            EdtMonitor.get().start();
+        }
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                reportFirstFrame();
+            }
+        });
 
         showScreen(Screen.MENU);
-        pack();
-        setLocationRelativeTo(null);
         windowedBounds = getBounds();
         setVisible(true);
     }
 
+    private void dumpMatchTrace() {
+        String message = onlineMatch == null ? Localization.t("trace.none", currentLanguage)
+                : Localization.t("trace.saved", currentLanguage) + "\n"
+                        + onlineMatch.dumpTrace("requested").toAbsolutePath();
+        JOptionPane.showMessageDialog(this, message, Localization.t("window.title", currentLanguage),
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private StatisticsManager statistics() {
+        if (statisticsManager == null) {
+            statisticsManager = preloader.statistics();
+        }
+        return statisticsManager;
+    }
+
+    private void reportFirstFrame() {
+        long elapsed = System.nanoTime() - preloader.getLaunchedAt();
+        EdtMonitor.get().record("firstFrame", elapsed);
+        if (Boolean.getBoolean("battleship.debug.startup")) {
+            System.err.printf("First frame after %d ms%n", elapsed / 1_000_000);
+        }
+    }
+
     private JPanel createMenuPanel() {
         JPanel panel = new JPanel(new GridLayout(0, 1, 8, 8));
         panel.setBorder(BorderFactory.createEmptyBorder(16, 16, 16, 16));
@@ -133,6 +227,12 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         JButton resetStats = new JButton();
         resetStats.addActionListener(e -> resetStatisticsFromMenu());
 
+        JButton replays = new JButton();
+        replays.addActionListener(e -> showReplaysFromMenu());
+
+        JButton spectate = new JButton();
+        spectate.addActionListener(e -> startSpectatorGame());
+
         JButton exitButton = new JButton();
         exitButton.addActionListener(e -> exitGame());
 
@@ -143,6 +243,8 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         panel.add(joinOnline);
         panel.add(changeLanguage);
         panel.add(resetStats);
+        panel.add(replays);
+        panel.add(spectate);
         panel.add(exitButton);
 
         fullscreenToggle = new JCheckBox();
@@ -150,7 +252,8 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         panel.add(fullscreenToggle);
 
         panel.putClientProperty("buttons", new JButton[] {
-                newVsAi, localTwoPlayers, loadGame, hostOnline, joinOnline, changeLanguage, resetStats, exitButton
+                newVsAi, localTwoPlayers, loadGame, hostOnline, joinOnline, changeLanguage, resetStats, exitButton,
+                replays, spectate
         });
 
         applyMenuTexts(panel);
@@ -165,7 +268,13 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 
         newGameButton = new JButton(Localization.t("game.newGame", currentLanguage));
-        newGameButton.addActionListener(e -> startNewVsAiGame());
+        newGameButton.addActionListener(e -> {
+            if (currentMode == GameMode.AI_VS_AI) {
+                startSpectatorGame();
+            } else {
+                startNewVsAiGame();
+            }
+        });
 
         backToMenuButton = new JButton(Localization.t("game.backToMenu", currentLanguage));
         backToMenuButton.addActionListener(e -> returnToMenu());
@@ -173,21 +282,30 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         saveGameButton = new JButton(currentLanguage == Language.UKRAINIAN ? "Зберегти гру" : "Save game");
         saveGameButton.addActionListener(e -> saveCurrentGame());
 
+        undoButton = new JButton(Localization.t("game.undo", currentLanguage));
+        undoButton.addActionListener(e -> stepHistory(true));
+        redoButton = new JButton(Localization.t("game.redo", currentLanguage));
+        redoButton.addActionListener(e -> stepHistory(false));
+
         JPanel topPanel = new JPanel(new BorderLayout(8, 8));
         topPanel.add(statusLabel, BorderLayout.CENTER);
-        JPanel rightButtons = new JPanel(new GridLayout(1, 2, 6, 0));
+        JPanel rightButtons = new JPanel(new GridLayout(1, 4, 6, 0));
+        rightButtons.add(undoButton);
+        rightButtons.add(redoButton);
         rightButtons.add(saveGameButton);
         rightButtons.add(newGameButton);
         topPanel.add(rightButtons, BorderLayout.EAST);
         topPanel.add(backToMenuButton, BorderLayout.WEST);
 
-        controller = new GameController(new Board(), new Board(), GameMode.VS_AI, statisticsManager);
-        playerButtons = new JButton[Board.SIZE][Board.SIZE];
-        aiButtons = new JButton[Board.SIZE][Board.SIZE];
+        controller = new GameController(new Board(), new Board(), GameMode.VS_AI, statistics());
+        playerView = createBoardView(false);
+        playerView.setTimingName("paint:player");
+        aiView = createBoardView(true);
+        aiView.setTimingName("paint:enemy");
 
         JPanel boards = new JPanel(new GridLayout(1, 2, 10, 10));
-        boards.add(createBoardPanel(playerButtons, false));
-        boards.add(createBoardPanel(aiButtons, true));
+        boards.add(new BoardScroller(playerView));
+        boards.add(new BoardScroller(aiView));
 
         placementControls = createPlacementControls();
 
@@ -196,9 +314,36 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         statsLabel = new JLabel();
         statsLabel.setBorder(BorderFactory.createEmptyBorder(4, 6, 4, 6));
         statsLabel.setFont(statsLabel.getFont().deriveFont(12f));
+        turboToggle = new JCheckBox(Localization.t("game.turbo", currentLanguage));
+        turboToggle.addActionListener(e -> {
+            animations.setTurbo(turboToggle.isSelected());
+            updateSpectatorSpeed();
+        });
+        hintsToggle = new JCheckBox(Localization.t("game.hints", currentLanguage));
+        hintsToggle.addActionListener(e -> updateHints());
+        speedLabel = new JLabel(Localization.t("game.speed", currentLanguage));
+        speedCombo = new JComboBox<>(SPECTATOR_SPEEDS);
+        speedCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, value + "×", index, isSelected, cellHasFocus);
+            }
+        });
+        speedCombo.addActionListener(e -> updateSpectatorSpeed());
+        speedLabel.setVisible(false);
+        speedCombo.setVisible(false);
+        JPanel toggles = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
+        toggles.add(speedLabel);
+        toggles.add(speedCombo);
+        toggles.add(hintsToggle);
+        toggles.add(turboToggle);
+        JPanel statsRow = new JPanel(new BorderLayout());
+        statsRow.add(statsLabel, BorderLayout.CENTER);
+        statsRow.add(toggles, BorderLayout.EAST);
         JPanel bottomPanel = new JPanel(new BorderLayout());
         bottomPanel.add(placementControls, BorderLayout.CENTER);
-        bottomPanel.add(statsLabel, BorderLayout.SOUTH);
+        bottomPanel.add(statsRow, BorderLayout.SOUTH);
         panel.add(bottomPanel, BorderLayout.SOUTH);
         panel.putClientProperty("boardsPanel", boards);
         panel.putClientProperty("topPanel", topPanel);
@@ -209,31 +354,14 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         return panel;
     }
 
-    private JPanel createBoardPanel(JButton[][] buttons, boolean enemyBoard) {
-        JPanel panel = new JPanel(new GridLayout(Board.SIZE, Board.SIZE));
-        panel.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                JButton cellButton = new JButton();
-                cellButton.setPreferredSize(new Dimension(32, 32));
-                cellButton.setMargin(new java.awt.Insets(0, 0, 0, 0));
-                cellButton.setFocusPainted(false);
-                cellButton.setOpaque(true);
-                cellButton.setBackground(FOG);
-                cellButton.setBorder(BorderFactory.createLineBorder(Color.GRAY));
-                int row = r;
-                int col = c;
-                if (enemyBoard) {
-                    cellButton.addActionListener(e -> handlePlayerShot(row, col));
-                } else {
-                    cellButton.addActionListener(e -> handlePlacementClick(row, col));
-                    cellButton.setEnabled(false);
-                }
-                buttons[r][c] = cellButton;
-                panel.add(cellButton);
-            }
+    private BoardView createBoardView(boolean enemyBoard) {
+        BoardView view = new BoardView(Board.SIZE);
+        if (enemyBoard) {
+            view.setCellListener((row, col) -> timeShot(() -> handlePlayerShot(row, col)));
+        } else {
+            view.setCellListener(this::handlePlacementClick);
         }
-        return panel;
+        return view;
     }
 
     private JPanel createPlacementControls() {
@@ -275,7 +403,9 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     }
 
     private void startNewVsAiGame() {
+        stopSpectator();
         cancelTurnDelay();
+        stopJournal();
         shutdownOnlineMatch(true);
         currentMode = GameMode.VS_AI;
         if (gamePanel == null) {
@@ -288,7 +418,10 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
             pendingPlayerTwoBoard = aiBoard;
             beginManualPlacement(new Board(false), GameMode.VS_AI, 1);
         } else {
-            controller = new GameController(new Board(), aiBoard, GameMode.VS_AI, statisticsManager);
+            controller = new GameController(new Board(), aiBoard, GameMode.VS_AI, statistics());
+            ReplayRecorder.attach(controller);
+            FootprintMeter.recordStart(controller);
+            startJournal();
             placementMode = false;
             placementControls.setVisible(false);
             statusLabel.setText(Localization.t("status.yourTurn", currentLanguage));
@@ -300,7 +433,9 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     }
 
     private void startLocalTwoPlayersGame() {
+        stopSpectator();
         cancelTurnDelay();
+        stopJournal();
         shutdownOnlineMatch(true);
         currentMode = GameMode.LOCAL_PVP;
         if (gamePanel == null) {
@@ -313,33 +448,134 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         updateSaveButtonState();
     }
 
+    /**
+     * Two AIs play on an engine thread while this frame shows the match on its own copies of the
+     * boards. Every frame drains whatever shots the engine has published since the last one and
+     * repaints once, so a fast engine skips frames instead of queueing repaints.
+     */
+    private void startSpectatorGame() {
+        stopSpectator();
+        cancelTurnDelay();
+        stopJournal();
+        shutdownOnlineMatch(true);
+        currentMode = GameMode.AI_VS_AI;
+        if (gamePanel == null) {
+            gamePanel = createGamePanel();
+            mainPanel.add(gamePanel, Screen.GAME.name());
+        }
+        Board first = new Board();
+        Board second = new Board();
+        controller = new GameController(first.copyFleet(), second.copyFleet(), GameMode.AI_VS_AI, null);
+        spectatorMatch = new AiMatch(first, second, ComputerAI.Strategy.DENSITY, ComputerAI.Strategy.HUNTER);
+        placementMode = false;
+        placementControls.setVisible(false);
+        speedLabel.setVisible(true);
+        speedCombo.setVisible(true);
+        refreshBoards();
+        disableEnemyBoard();
+        updateStatusForCurrentTurn();
+        updateSaveButtonState();
+        showScreen(Screen.GAME);
+        updateSpectatorSpeed();
+        spectatorMatch.start();
+        animations.addFrameCallback(spectatorFrame);
+    }
+
+    private void stopSpectator() {
+        animations.removeFrameCallback(spectatorFrame);
+        if (spectatorMatch != null) {
+            spectatorMatch.cancel();
+            spectatorMatch = null;
+        }
+        if (speedCombo != null) {
+            speedLabel.setVisible(false);
+            speedCombo.setVisible(false);
+        }
+    }
+
+    private void updateSpectatorSpeed() {
+        if (spectatorMatch != null) {
+            int speed = (Integer) speedCombo.getSelectedItem();
+            spectatorMatch.setShotDelay(turboToggle.isSelected() ? 0 : SPECTATOR_SHOT_MS / speed);
+        }
+    }
+
+    private void drainSpectatorShots() {
+        if (spectatorMatch == null) {
+            animations.removeFrameCallback(spectatorFrame);
+            return;
+        }
+        ShotResult last = null;
+        BoardView lastView = null;
+        for (AiMatch.Shot shot = spectatorMatch.poll(); shot != null; shot = spectatorMatch.poll()) {
+            ShotResult result = controller.replayMove(shot.getSequence(), shot.isOnFirstBoard(), shot.getRow(),
+                    shot.getCol());
+            if (result != null) {
+                last = result;
+                lastView = shot.isOnFirstBoard() ? playerView : aiView;
+            }
+        }
+        if (last == null) {
+            return;
+        }
+        refreshBoards();
+        animateShot(lastView, last);
+        updateStatusForCurrentTurn();
+        if (controller.isGameOver()) {
+            animations.removeFrameCallback(spectatorFrame);
+            spectatorMatch = null;
+        }
+    }
+
+    private String strategyName(ComputerAI.Strategy strategy) {
+        return Localization.t(strategy == ComputerAI.Strategy.DENSITY ? "ai.density" : "ai.hunter", currentLanguage);
+    }
+
     private void loadGameFromMenu() {
         shutdownOnlineMatch(true);
-        List<String> saves = SaveManager.listSaves();
+        CompletableFuture<List<SaveCatalog.Entry>> catalog = SaveCatalog.listAsync();
+        if (catalog.isDone()) {
+            showLoadDialog(catalog.join());
+            return;
+        }
+        JDialog reading = showProgressDialog(localized("Читання збережень...", "Reading saves..."));
+        catalog.whenComplete((saves, error) -> SwingUtilities.invokeLater(() -> {
+            reading.dispose();
+            showLoadDialog(error == null ? saves : List.of());
+        }));
+    }
+
+    private void showLoadDialog(List<SaveCatalog.Entry> saves) {
         if (saves.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                     localized("Немає збережених ігор", "No saves available"));
             return;
         }
-        Object selection = JOptionPane.showInputDialog(this,
-                localized("Оберіть збереження для завантаження", "Choose a save to load"),
-                Localization.t("window.title", currentLanguage),
-                JOptionPane.PLAIN_MESSAGE,
-                null,
-                saves.toArray(),
-                saves.get(0));
-        if (selection == null) {
+        JList<SaveCatalog.Entry> saveList = new JList<>(saves.toArray(new SaveCatalog.Entry[0]));
+        saveList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        saveList.setCellRenderer(new SaveEntryRenderer());
+        saveList.setFixedCellHeight(SaveEntryRenderer.ROW_HEIGHT);
+        saveList.setVisibleRowCount(6);
+        saveList.setSelectedIndex(0);
+        JScrollPane scroll = new JScrollPane(saveList);
+        scroll.setPreferredSize(new Dimension(460, SaveEntryRenderer.ROW_HEIGHT * 6));
+        Object[] message = {localized("Оберіть збереження для завантаження", "Choose a save to load"), scroll};
+        int option = JOptionPane.showConfirmDialog(this, message,
+                Localization.t("window.title", currentLanguage), JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE);
+        SaveCatalog.Entry selection = saveList.getSelectedValue();
+        if (option != JOptionPane.OK_OPTION || selection == null) {
             return;
         }
         try {
-            GameState state = SaveManager.load(selection.toString());
+            GameState state = SaveManager.load(selection.getName());
             if (state.getMode() != GameMode.VS_AI) {
                 JOptionPane.showMessageDialog(this,
                         localized("Поки що підтримується лише завантаження ігор проти комп'ютера",
                                 "Only VS AI saves are supported right now"));
                 return;
             }
-            applyLoadedGame(state);
+            applyLoadedGame(state, selection.getName());
         } catch (IOException | ClassNotFoundException ex) {
             JOptionPane.showMessageDialog(this,
                     localized("Не вдалося завантажити гру", "Unable to load the save") + "\n" + ex.getMessage(),
@@ -348,16 +584,25 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         }
     }
 
-    private void applyLoadedGame(GameState state) {
+    private void applyLoadedGame(GameState state, String name) {
+        stopSpectator();
         cancelTurnDelay();
+        stopJournal();
         currentMode = state.getMode();
         currentLanguage = state.getLanguage();
         if (gamePanel == null) {
             gamePanel = createGamePanel();
             mainPanel.add(gamePanel, Screen.GAME.name());
         }
-        controller = new GameController(state.getPlayerOneBoard(), state.getPlayerTwoBoard(), state.getMode(),
-                state.isPlayerTurn(), state.isPlayerOneTurn(), state.getComputerAi(), statisticsManager);
+        controller = new GameController(state, statistics());
+        try {
+            MoveJournal.replay(name, controller);
+        } catch (IOException ignored) {
+        }
+        if (!controller.isGameOver()) {
+            ReplayRecorder.attach(controller);
+        }
+        startJournal();
         placementMode = false;
         placementControls.setVisible(false);
         applyLocalization();
@@ -402,6 +647,15 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                     localized("Некоректний порт", "Invalid port"));
             return;
         }
+        new Thread(() -> {
+            MatchWal.get();
+            SwingUtilities.invokeLater(() -> hostOnlineGame(port));
+        }, "match-wal-open").start();
+    }
+
+    /** Runs once the match log is open, so its recovery never reads the disk on the EDT. */
+    private void hostOnlineGame(int port) {
+        MatchWal.RecoveredMatch resume = chooseMatchToResume();
         JDialog waiting = showProgressDialog(localized("Очікування підключення суперника...", "Waiting for opponent..."));
         new Thread(() -> {
             try {
@@ -410,7 +664,7 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                 server.close();
                 SwingUtilities.invokeLater(() -> {
                     waiting.dispose();
-                    beginOnlineSession(GameMode.ONLINE_HOST, socket);
+                    beginOnlineSession(GameMode.ONLINE_HOST, socket, resume);
                 });
             } catch (IOException ex) {
                 SwingUtilities.invokeLater(() -> {
@@ -455,9 +709,10 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
             try {
                 NetworkClient client = new NetworkClient(host, port);
                 Socket socket = client.connect();
+                MatchWal.get();
                 SwingUtilities.invokeLater(() -> {
                     connecting.dispose();
-                    beginOnlineSession(GameMode.ONLINE_CLIENT, socket);
+                    beginOnlineSession(GameMode.ONLINE_CLIENT, socket, null);
                 });
             } catch (IOException ex) {
                 SwingUtilities.invokeLater(() -> {
@@ -472,8 +727,33 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         }, "client-join").start();
     }
 
-    private void beginOnlineSession(GameMode mode, Socket socket) {
+    private MatchWal.RecoveredMatch chooseMatchToResume() {
+        MatchWal wal = MatchWal.get();
+        if (wal == null) {
+            return null;
+        }
+        for (MatchWal.RecoveredMatch match : wal.inFlight()) {
+            if (match.getMode() != GameMode.ONLINE_HOST) {
+                continue;
+            }
+            int option = JOptionPane.showConfirmDialog(this,
+                    localized("Знайдено перервану онлайн-гру (ходів: ", "An interrupted online match was found (moves: ")
+                            + match.getMoveCount() + "). "
+                            + localized("Продовжити її з тим самим суперником?", "Resume it with the same opponent?"),
+                    Localization.t("menu.host", currentLanguage), JOptionPane.YES_NO_OPTION);
+            if (option == JOptionPane.YES_OPTION) {
+                return match;
+            }
+            break;
+        }
+        wal.discardRecovered();
+        return null;
+    }
+
+    private void beginOnlineSession(GameMode mode, Socket socket, MatchWal.RecoveredMatch resume) {
+        stopSpectator();
         cancelTurnDelay();
+        stopJournal();
         currentMode = mode;
         if (gamePanel == null) {
             gamePanel = createGamePanel();
@@ -483,7 +763,10 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         Board opponentBoard = new Board(false);
         opponentBoard.setVirtualFleet(true);
         boolean playerStarts = mode == GameMode.ONLINE_HOST;
-        controller = new GameController(playerBoard, opponentBoard, mode, playerStarts, true, null, statisticsManager);
+        controller = new GameController(playerBoard, opponentBoard, mode, playerStarts, true, null, statistics());
+        controller.setOpponent(socket.getInetAddress().getHostAddress());
+        ReplayRecorder.attach(controller);
+        FootprintMeter.recordStart(controller);
         placementMode = false;
         placementControls.setVisible(false);
         refreshBoards();
@@ -491,7 +774,7 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         updateStatsLabel();
         updateSaveButtonState();
         try {
-            onlineMatch = new OnlineMatch(controller, this, socket);
+            onlineMatch = new OnlineMatch(controller, this, socket, resume);
         } catch (IOException ex) {
             JOptionPane.showMessageDialog(this,
                     localized("Не вдалося розпочати онлайн-гру", "Unable to start the online match") + "\n"
@@ -500,6 +783,11 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
             returnToMenu();
             return;
         }
+        if (resume != null) {
+            statusLabel.setText(localized("Відновлення гри...", "Resuming the match..."));
+            disableEnemyBoard();
+            return;
+        }
         statusLabel.setText(localized("Розмістіть кораблі", "Place your ships"));
         promptOnlinePlacement();
     }
@@ -510,6 +798,9 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         }
         Board playerBoard = controller.getPlayerBoard();
         boolean manual = askManualPlacement();
+        if (onlineMatch != null && onlineMatch.isResumed()) {
+            return;
+        }
         if (manual) {
             beginManualPlacement(playerBoard, currentMode, 1);
         } else {
@@ -554,16 +845,20 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                     localized("Назва збереження не може бути порожньою", "Save name cannot be empty"));
             return;
         }
-        try {
-            SaveManager.save(controller.createState(currentLanguage), name);
-            JOptionPane.showMessageDialog(this,
-                    localized("Гру збережено", "Game saved"));
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this,
-                    localized("Не вдалося зберегти гру", "Unable to save the game") + "\n" + ex.getMessage(),
-                    Localization.t("window.title", currentLanguage),
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        SaveManager.save(controller.createState(currentLanguage), name).whenComplete((ignored, error) ->
+                SwingUtilities.invokeLater(() -> {
+                    if (error == null) {
+                        JOptionPane.showMessageDialog(this,
+                                localized("Гру збережено", "Game saved"));
+                        return;
+                    }
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    JOptionPane.showMessageDialog(this,
+                            localized("Не вдалося зберегти гру", "Unable to save the game") + "\n"
+                                    + cause.getMessage(),
+                            Localization.t("window.title", currentLanguage),
+                            JOptionPane.ERROR_MESSAGE);
+                }));
     }
 
     private boolean askManualPlacement() {
@@ -664,7 +959,7 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                 Localization.t("menu.resetStats", currentLanguage),
                 JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            statisticsManager.reset();
+            statistics().reset();
             updateStatsLabel();
             JOptionPane.showMessageDialog(this,
                     Localization.t("dialog.resetStatsDone", currentLanguage));
@@ -672,13 +967,15 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     }
 
     private void exitGame() {
+        stopJournal();
         shutdownOnlineMatch(true);
+        PersistenceExecutor.get().flush();
         dispose();
         System.exit(0);
     }
 
     private void handlePlayerShot(int row, int col) {
-        if (placementMode || controller == null) {
+        if (placementMode || controller == null || currentMode == GameMode.AI_VS_AI) {
             return;
         }
         if (controller.isGameOver()) {
@@ -703,7 +1000,9 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                 statusLabel.setText(Localization.t("status.already", currentLanguage));
                 return;
             }
+            animateShot(aiView, result);
             refreshBoards();
+            updateSaveButtonState();
             if (controller.isGameOver()) {
                 statusLabel.setText(Localization.t("status.win", currentLanguage));
                 disableEnemyBoard();
@@ -726,7 +1025,8 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
             statusLabel.setText(Localization.t("status.already", currentLanguage));
             return;
         }
-        paintEnemyShot(result);
+        animateShot(aiView, result);
+        refreshBoards();
         if (controller.isGameOver()) {
             cancelTurnDelay();
             statusLabel.setText(Localization.t("status.win", currentLanguage));
@@ -846,7 +1146,10 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         placementControls.setVisible(false);
         if (currentMode == GameMode.VS_AI) {
             Board aiBoard = pendingPlayerTwoBoard != null ? pendingPlayerTwoBoard : new Board();
-            controller = new GameController(currentPlacementBoard, aiBoard, GameMode.VS_AI, statisticsManager);
+            controller = new GameController(currentPlacementBoard, aiBoard, GameMode.VS_AI, statistics());
+            ReplayRecorder.attach(controller);
+            FootprintMeter.recordStart(controller);
+            startJournal();
             statusLabel.setText(Localization.t("status.yourTurn", currentLanguage));
             refreshBoards();
             enableEnemyBoard();
@@ -878,7 +1181,9 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         }
         cancelTurnDelay();
         controller = new GameController(pendingPlayerOneBoard, pendingPlayerTwoBoard, GameMode.LOCAL_PVP,
-                statisticsManager);
+                statistics());
+        ReplayRecorder.attach(controller);
+        FootprintMeter.recordStart(controller);
         statusLabel.setText(Localization.t("status.yourTurn", currentLanguage));
         placementMode = false;
         placementControls.setVisible(false);
@@ -889,11 +1194,7 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     }
 
     private void enablePlacementBoard() {
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                playerButtons[r][c].setEnabled(true);
-            }
-        }
+        playerView.setAllClickable(true);
         disableEnemyBoard();
         updateRemainingShipsLabel();
     }
@@ -904,37 +1205,46 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                         "Switch players. Pass control and press OK"));
         controller.completeLocalSwitch();
         refreshBoards();
+        updateSaveButtonState();
         statusLabel.setText(Localization.t("status.yourTurn", currentLanguage));
         enableEnemyBoard();
     }
 
-    private void paintEnemyShot(ShotResult result) {
-        JButton target = aiButtons[result.getRow()][result.getCol()];
-        target.setEnabled(false);
-        switch (result.getOutcome()) {
-            case MISS:
-                target.setBackground(MISS);
-                target.setText("•");
-                break;
-            case HIT:
-                target.setBackground(HIT);
-                target.setText("✕");
-                break;
-            case SUNK:
-                target.setBackground(SUNK);
-                target.setText("✕");
-                highlightSunkShip(result.getShip(), false);
-                refreshBoards();
-                break;
-            default:
-                break;
+    /**
+     * Computes the AI's next target on a worker thread and applies it on the EDT; a hit starts the
+     * next computation, so shots arrive one at a time. Cancelling raises a flag the search checks,
+     * so a superseded search stops early without touching the AI's state.
+     */
+    private void executeAiTurn() {
+        GameController game = controller;
+        if (game == null || !game.isAiToMove()) {
+            return;
         }
+        cancelAiTurn();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<Point> task = CompletableFuture.supplyAsync(() -> game.chooseAiTarget(cancelled::get),
+                AI_EXECUTOR);
+        aiTurn = task;
+        aiTurnCancelled = cancelled;
+        updateSaveButtonState();
+        task.whenComplete((target, error) -> SwingUtilities.invokeLater(() -> {
+            if (aiTurn != task || controller != game) {
+                return;
+            }
+            aiTurn = null;
+            if (error == null && target != null) {
+                timeShot(() -> applyAiShot(target));
+            }
+        }));
     }
 
-    private void executeAiTurn() {
-        ShotResult ai = controller.aiFire();
-        paintPlayerShot(ai);
+    private void applyAiShot(Point target) {
+        animateShot(playerView, controller.applyAiShot(target));
         refreshBoards();
+        if (controller.isAiToMove()) {
+            scheduleTurnDelay(AI_VOLLEY_MS, this::executeAiTurn);
+            return;
+        }
         if (controller.isGameOver()) {
             statusLabel.setText(Localization.t("status.lose", currentLanguage));
             disableEnemyBoard();
@@ -948,42 +1258,6 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         updateSaveButtonState();
     }
 
-    private void paintPlayerShot(ShotResult result) {
-        if (result == null) {
-            return;
-        }
-        JButton target = playerButtons[result.getRow()][result.getCol()];
-        switch (result.getOutcome()) {
-            case MISS:
-                target.setBackground(MISS);
-                target.setText("•");
-                break;
-            case HIT:
-                target.setBackground(HIT);
-                target.setText("✕");
-                break;
-            case SUNK:
-                target.setBackground(SUNK);
-                target.setText("✕");
-                highlightSunkShip(result.getShip(), true);
-                refreshBoards();
-                break;
-            default:
-                break;
-        }
-    }
-
-    private void highlightSunkShip(Ship ship, boolean onPlayerBoard) {
-        if (ship == null) {
-            return;
-        }
-        for (Cell cell : ship.getCells()) {
-            JButton button = (onPlayerBoard ? playerButtons : aiButtons)[cell.getRow()][cell.getCol()];
-            button.setBackground(SUNK);
-            button.setText("✕");
-        }
-    }
-
     private Board getSelfBoardForDisplay() {
         if (controller == null) {
             return null;
@@ -1004,24 +1278,36 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         return controller.getAiBoard();
     }
 
+    /**
+     * Brings both views up to date with the boards. Only cells the boards report as changed are
+     * repainted; a view switching to another board (placement, local turn switch) gets every cell.
+     */
     private void refreshBoards() {
+        long started = EdtMonitor.get().begin();
+        try {
+            updateBoardViews();
+            updateHints();
+        } finally {
+            EdtMonitor.get().end(EdtMonitor.REFRESH, started);
+        }
+    }
+
+    private void updateBoardViews() {
         if (placementMode && currentPlacementBoard != null) {
-            Cell[][] cells = currentPlacementBoard.getCells();
-            for (int r = 0; r < Board.SIZE; r++) {
-                for (int c = 0; c < Board.SIZE; c++) {
-                    JButton playerBtn = playerButtons[r][c];
-                    JButton aiBtn = aiButtons[r][c];
-                    playerBtn.setText("");
-                    aiBtn.setText("");
-                    if (cells[r][c].hasShip()) {
-                        playerBtn.setBackground(PLAYER_SHIP);
-                    } else {
-                        playerBtn.setBackground(FOG);
+            if (shownSelfBoard != currentPlacementBoard || shownTargetBoard != null) {
+                shownSelfBoard = currentPlacementBoard;
+                shownTargetBoard = null;
+                currentPlacementBoard.markAllDirty();
+                for (int r = 0; r < Board.SIZE; r++) {
+                    for (int c = 0; c < Board.SIZE; c++) {
+                        aiView.setCell(r, c, BoardView.FOG);
                     }
-                    aiBtn.setBackground(FOG);
-                    aiBtn.setEnabled(false);
                 }
+                aiView.setAllClickable(false);
             }
+            Cell[][] cells = currentPlacementBoard.getCells();
+            currentPlacementBoard.drainDirty((r, c) ->
+                    playerView.setCell(r, c, cells[r][c].hasShip() ? BoardView.SHIP : BoardView.FOG));
             return;
         }
         if (controller == null) {
@@ -1032,52 +1318,103 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         if (self == null || target == null) {
             return;
         }
+        if (self != shownSelfBoard || target != shownTargetBoard) {
+            shownSelfBoard = self;
+            shownTargetBoard = target;
+            self.markAllDirty();
+            target.markAllDirty();
+        }
         Cell[][] selfCells = self.getCells();
         Cell[][] targetCells = target.getCells();
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                JButton playerBtn = playerButtons[r][c];
-                JButton aiBtn = aiButtons[r][c];
-                playerBtn.setText("");
-                aiBtn.setText("");
-                playerBtn.setEnabled(!placementMode && currentMode == GameMode.LOCAL_PVP && !controller.isPlayerTurn());
-                if (selfCells[r][c].hasShip()) {
-                    if (selfCells[r][c].isShot()) {
-                        playerBtn.setBackground(selfCells[r][c].getShip().isSunk() ? SUNK : HIT);
-                        playerBtn.setText("✕");
-                    } else {
-                        playerBtn.setBackground(PLAYER_SHIP);
-                    }
-                } else {
-                    if (selfCells[r][c].isShot()) {
-                        playerBtn.setBackground(MISS);
-                        playerBtn.setText("•");
-                    } else {
-                        playerBtn.setBackground(FOG);
-                    }
-                }
-                if (targetCells[r][c].isShot()) {
-                    if (targetCells[r][c].hasShip()) {
-                        aiBtn.setBackground(targetCells[r][c].getShip().isSunk() ? SUNK : HIT);
-                        aiBtn.setText("✕");
-                    } else if (targetCells[r][c].isRemoteHit()) {
-                        aiBtn.setBackground(targetCells[r][c].isRemoteSunk() ? SUNK : HIT);
-                        aiBtn.setText("✕");
-                    } else {
-                        aiBtn.setBackground(MISS);
-                        aiBtn.setText("•");
+        boolean selfClickable = !placementMode && currentMode == GameMode.LOCAL_PVP && !controller.isPlayerTurn();
+        self.drainDirty((r, c) -> {
+            playerView.setCell(r, c, ownCellState(selfCells[r][c]));
+            playerView.setClickable(r, c, selfClickable);
+        });
+        boolean spectating = currentMode == GameMode.AI_VS_AI;
+        target.drainDirty((r, c) -> {
+            int state = spectating ? ownCellState(targetCells[r][c]) : targetCellState(targetCells[r][c]);
+            aiView.setCell(r, c, state);
+            aiView.setClickable(r, c, !spectating && state == BoardView.FOG);
+        });
+    }
+
+    /** Asks the hint engine for the shown target board; the map arrives later in {@link #showHints}. */
+    private void updateHints() {
+        Board target = placementMode || controller == null || controller.isGameOver() ? null
+                : getTargetBoardForDisplay();
+        if (hintsToggle == null || !hintsToggle.isSelected() || target == null) {
+            hintEngine.cancel();
+            aiView.setHeatmap(null);
+            return;
+        }
+        hintEngine.update(target);
+    }
+
+    private void showHints(HintEngine.Heatmap map) {
+        Board target = placementMode || controller == null ? null : getTargetBoardForDisplay();
+        if (target != null && hintsToggle.isSelected() && target.positionHash() == map.getPositionHash()) {
+            aiView.setHeatmap(map);
+        }
+    }
+
+    private static int ownCellState(Cell cell) {
+        if (cell.hasShip()) {
+            if (cell.isShot()) {
+                return cell.getShip().isSunk() ? BoardView.SUNK : BoardView.HIT;
+            }
+            return BoardView.SHIP;
+        }
+        return cell.isShot() ? BoardView.MISS : BoardView.FOG;
+    }
+
+    private static int targetCellState(Cell cell) {
+        if (!cell.isShot()) {
+            return BoardView.FOG;
+        }
+        if (cell.hasShip()) {
+            return cell.getShip().isSunk() ? BoardView.SUNK : BoardView.HIT;
+        }
+        if (cell.isRemoteHit()) {
+            return cell.isRemoteSunk() ? BoardView.SUNK : BoardView.HIT;
+        }
+        return BoardView.MISS;
+    }
+
+    private void animateShot(BoardView view, ShotResult result) {
+        if (result == null) {
+            return;
+        }
+        switch (result.getOutcome()) {
+            case MISS:
+                animations.effect(view, result.getRow(), result.getCol(), BoardView.EFFECT_SPLASH,
+                        AnimationEngine.SPLASH_MS);
+                break;
+            case HIT:
+                animations.effect(view, result.getRow(), result.getCol(), BoardView.EFFECT_SHOT,
+                        AnimationEngine.SHOT_MS);
+                break;
+            case SUNK:
+                if (result.getShip() != null) {
+                    for (Cell cell : result.getShip().getCells()) {
+                        animations.effect(view, cell.getRow(), cell.getCol(), BoardView.EFFECT_SINK,
+                                AnimationEngine.SINK_MS);
                     }
-                    aiBtn.setEnabled(false);
-                } else {
-                    aiBtn.setBackground(FOG);
-                    aiBtn.setEnabled(true);
                 }
-            }
+                break;
+            default:
+                break;
         }
     }
 
+    private void timeShot(Runnable shot) {
+        long started = EdtMonitor.get().begin();
+        shot.run();
+        EdtMonitor.get().end(EdtMonitor.SHOT, started);
+    }
+
     private void disableEnemyBoard() {
-        Arrays.stream(aiButtons).flatMap(Arrays::stream).forEach(btn -> btn.setEnabled(false));
+        aiView.setAllClickable(false);
     }
 
     private void enableEnemyBoard() {
@@ -1090,6 +1427,10 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
             disableEnemyBoard();
             return;
         }
+        if (currentMode == GameMode.AI_VS_AI) {
+            disableEnemyBoard();
+            return;
+        }
         if (isOnlineMode()) {
             if (onlineMatch == null || !onlineMatch.isReadyToPlay() || !controller.isPlayerTurn()) {
                 disableEnemyBoard();
@@ -1103,18 +1444,14 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         }
         for (int r = 0; r < Board.SIZE; r++) {
             for (int c = 0; c < Board.SIZE; c++) {
-                if (!target.getCells()[r][c].isShot()) {
-                    aiButtons[r][c].setEnabled(true);
-                } else {
-                    aiButtons[r][c].setEnabled(false);
-                }
+                aiView.setClickable(r, c, !target.getCells()[r][c].isShot());
             }
         }
     }
 
     private void updateStatsLabel() {
         if (statsLabel != null) {
-            statsLabel.setText(statisticsManager.formatInline(currentLanguage));
+            statsLabel.setText(statistics().formatInline(currentLanguage));
         }
     }
 
@@ -1129,6 +1466,35 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         boolean enabled = controller != null && currentMode == GameMode.VS_AI && !placementMode
                 && !controller.isGameOver() && controller.isPlayerTurn();
         saveGameButton.setEnabled(enabled);
+        boolean history = controller != null && !placementMode && currentMode == controller.getMode() && aiTurn == null;
+        undoButton.setEnabled(history && controller.canUndo());
+        redoButton.setEnabled(history && controller.canRedo());
+    }
+
+    private void stepHistory(boolean undo) {
+        if (controller == null || placementMode || aiTurn != null) {
+            return;
+        }
+        boolean playerOneTurn = controller.isPlayerOneTurnFlag();
+        if (!(undo ? controller.undo() : controller.redo())) {
+            return;
+        }
+        cancelTurnDelay();
+        refreshBoards();
+        updateStatusForCurrentTurn();
+        updateStatsLabel();
+        updateSaveButtonState();
+        if (currentMode == GameMode.LOCAL_PVP && playerOneTurn != controller.isPlayerOneTurnFlag()) {
+            disableEnemyBoard();
+            showLocalTurnSwitchDialog();
+            return;
+        }
+        if (currentMode == GameMode.VS_AI && !controller.isPlayerTurn()) {
+            disableEnemyBoard();
+            scheduleTurnDelay(this::executeAiTurn);
+            return;
+        }
+        enableEnemyBoard();
     }
 
     private void shutdownOnlineMatch(boolean notifyOpponent) {
@@ -1146,6 +1512,10 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         if (statusLabel == null) {
             return;
         }
+        if (currentMode == GameMode.AI_VS_AI && controller != null) {
+            updateSpectatorStatus();
+            return;
+        }
         if (controller == null || controller.isGameOver()) {
             statusLabel.setText(Localization.t("status.yourTurn", currentLanguage));
             return;
@@ -1161,28 +1531,140 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         }
     }
 
+    private void updateSpectatorStatus() {
+        String first = strategyName(ComputerAI.Strategy.DENSITY);
+        String second = strategyName(ComputerAI.Strategy.HUNTER);
+        if (controller.isGameOver()) {
+            String winner = controller.getAiBoard().allShipsSunk() ? first : second;
+            statusLabel.setText(String.format(Localization.t("status.spectateWinner", currentLanguage), winner,
+                    controller.getMoveCount()));
+        } else {
+            statusLabel.setText(String.format(Localization.t("status.spectate", currentLanguage), first, second,
+                    controller.getMoveCount()));
+        }
+    }
+
+    private void showReplaysFromMenu() {
+        List<Path> replays = Replay.list();
+        if (replays.isEmpty()) {
+            JOptionPane.showMessageDialog(this, Localization.t("replay.none", currentLanguage),
+                    Localization.t("window.title", currentLanguage), JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        List<Replay.Header> headers = new ArrayList<>();
+        for (Path path : replays) {
+            try {
+                headers.add(Replay.readHeader(path));
+            } catch (IOException ignored) {
+            }
+        }
+        if (headers.isEmpty()) {
+            JOptionPane.showMessageDialog(this, Localization.t("replay.none", currentLanguage),
+                    Localization.t("window.title", currentLanguage), JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+        JList<Replay.Header> replayList = new JList<>(headers.toArray(new Replay.Header[0]));
+        replayList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        replayList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                Replay.Header header = (Replay.Header) value;
+                setText(format.format(new Date(header.getStartedAt())) + " — " + header.getMode().name() + ", "
+                        + Localization.t("replay.move", currentLanguage) + ": " + header.getMoveCount());
+                return this;
+            }
+        });
+        replayList.setVisibleRowCount(8);
+        replayList.setSelectedIndex(0);
+        Object[] message = {Localization.t("replay.choose", currentLanguage), new JScrollPane(replayList)};
+        int option = JOptionPane.showConfirmDialog(this, message, Localization.t("window.title", currentLanguage),
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        int index = replayList.getSelectedIndex();
+        if (option != JOptionPane.OK_OPTION || index < 0) {
+            return;
+        }
+        Replay replay;
+        try {
+            replay = Replay.open(headers.get(index).getPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    localized("Не вдалося відкрити запис гри", "Unable to open the recording") + "\n"
+                            + ex.getMessage(),
+                    Localization.t("window.title", currentLanguage), JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        closeReplay();
+        replayPanel = new ReplayPanel(replay, currentLanguage, this::returnToMenu);
+        mainPanel.add(replayPanel, Screen.REPLAY.name());
+        showScreen(Screen.REPLAY);
+    }
+
+    private void closeReplay() {
+        if (replayPanel != null) {
+            replayPanel.stop();
+            mainPanel.remove(replayPanel);
+            replayPanel = null;
+        }
+    }
+
     private void returnToMenu() {
+        stopSpectator();
         cancelTurnDelay();
+        animations.cancelAll();
+        stopJournal();
+        closeReplay();
         shutdownOnlineMatch(true);
         showScreen(Screen.MENU);
         updateSaveButtonState();
     }
 
+    private void startJournal() {
+        stopJournal();
+        if (controller == null || currentMode != GameMode.VS_AI || controller.isGameOver()) {
+            return;
+        }
+        try {
+            moveJournal = MoveJournal.start(MoveJournal.AUTOSAVE, controller, () -> currentLanguage);
+        } catch (IOException ex) {
+            moveJournal = null;
+        }
+    }
+
+    private void stopJournal() {
+        if (moveJournal != null) {
+            moveJournal.close();
+            moveJournal = null;
+        }
+    }
+
     private void scheduleTurnDelay(Runnable action) {
+        scheduleTurnDelay(TURN_DELAY_MS, action);
+    }
+
+    private void scheduleTurnDelay(int delayMs, Runnable action) {
         cancelTurnDelay();
-        turnDelayTimer = new Timer(1000, e -> {
-            ((Timer) e.getSource()).stop();
-            turnDelayTimer = null;
+        turnDelay = animations.schedule(delayMs, () -> {
+            turnDelay = null;
             action.run();
         });
-        turnDelayTimer.setRepeats(false);
-        turnDelayTimer.start();
     }
 
     private void cancelTurnDelay() {
-        if (turnDelayTimer != null) {
-            turnDelayTimer.stop();
-            turnDelayTimer = null;
+        if (turnDelay != null) {
+            turnDelay.cancel();
+            turnDelay = null;
+        }
+        cancelAiTurn();
+    }
+
+    private void cancelAiTurn() {
+        if (aiTurn != null) {
+            aiTurnCancelled.set(true);
+            aiTurn.cancel(false);
+            aiTurn = null;
         }
     }
 
@@ -1195,6 +1677,11 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
             if (saveGameButton != null) {
                 saveGameButton.setText(currentLanguage == Language.UKRAINIAN ? "Зберегти гру" : "Save game");
             }
+            undoButton.setText(Localization.t("game.undo", currentLanguage));
+            redoButton.setText(Localization.t("game.redo", currentLanguage));
+            turboToggle.setText(Localization.t("game.turbo", currentLanguage));
+            hintsToggle.setText(Localization.t("game.hints", currentLanguage));
+            speedLabel.setText(Localization.t("game.speed", currentLanguage));
             updateStatusForCurrentTurn();
             if (horizontalButton != null && verticalButton != null) {
                 horizontalButton
@@ -1214,7 +1701,7 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
 
     private void applyMenuTexts(JPanel menuPanel) {
         JButton[] buttons = (JButton[]) menuPanel.getClientProperty("buttons");
-        if (buttons == null || buttons.length < 8) {
+        if (buttons == null || buttons.length < 10) {
             return;
         }
         buttons[0].setText(Localization.t("menu.newVsAi", currentLanguage));
@@ -1225,6 +1712,8 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
         buttons[5].setText(Localization.t("menu.language", currentLanguage));
         buttons[6].setText(Localization.t("menu.resetStats", currentLanguage));
         buttons[7].setText(Localization.t("menu.exit", currentLanguage));
+        buttons[8].setText(Localization.t("menu.replays", currentLanguage));
+        buttons[9].setText(Localization.t("menu.spectate", currentLanguage));
         if (fullscreenToggle != null) {
             fullscreenToggle.setText(Localization.t("menu.fullscreen", currentLanguage));
             fullscreenToggle.setSelected(fullscreen);
@@ -1239,20 +1728,24 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
 
     @Override
     public void onLocalShotResult(ShotResult result) {
-        paintEnemyShot(result);
-        refreshBoards();
-        updateOnlineTurnState();
+        timeShot(() -> {
+            animateShot(aiView, result);
+            refreshBoards();
+            updateOnlineTurnState();
+        });
     }
 
     @Override
     public void onIncomingShot(ShotResult result) {
-        paintPlayerShot(result);
-        refreshBoards();
-        if (controller != null && controller.isGameOver()) {
-            handleOnlineDefeat();
-        } else {
-            updateOnlineTurnState();
-        }
+        timeShot(() -> {
+            animateShot(playerView, result);
+            refreshBoards();
+            if (controller != null && controller.isGameOver()) {
+                handleOnlineDefeat();
+            } else {
+                updateOnlineTurnState();
+            }
+        });
     }
 
     @Override
@@ -1282,11 +1775,37 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
                 Localization.t("window.title", currentLanguage), JOptionPane.ERROR_MESSAGE);
     }
 
+    @Override
+    public void onMatchError(String message) {
+        shutdownOnlineMatch(false);
+        JOptionPane.showMessageDialog(this,
+                localized("Не вдалося записати хід у журнал матчу: ", "Unable to log the move: ") + message,
+                Localization.t("window.title", currentLanguage), JOptionPane.ERROR_MESSAGE);
+        returnToMenu();
+    }
+
     @Override
     public void requestBoardRefresh() {
         refreshBoards();
     }
 
+    @Override
+    public void onMatchResumed(GameController restored) {
+        controller = restored;
+        ReplayRecorder.attach(controller);
+        placementMode = false;
+        placementControls.setVisible(false);
+        refreshBoards();
+        updateStatsLabel();
+        updateOnlineTurnState();
+    }
+
+    @Override
+    public void onResumeDeclined() {
+        statusLabel.setText(localized("Розмістіть кораблі", "Place your ships"));
+        promptOnlinePlacement();
+    }
+
     private void handleOnlineWin() {
         statusLabel.setText(Localization.t("status.win", currentLanguage));
         disableEnemyBoard();
@@ -1344,4 +1863,94 @@ class BattleshipFrame extends JFrame implements OnlineMatch.Listener {
     private String localized(String ua, String en) {
         return currentLanguage == Language.UKRAINIAN ? ua : en;
     }
+
+    private class SaveEntryRenderer extends DefaultListCellRenderer {
+        static final int ROW_HEIGHT = 2 * Board.SIZE * 2 + 12;
+        private static final int THUMB_CELL = 3;
+
+        private final ThumbnailIcon icon = new ThumbnailIcon();
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+                boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            SaveCatalog.Entry entry = (SaveCatalog.Entry) value;
+            icon.entry = entry;
+            setIcon(icon);
+            setIconTextGap(10);
+            setText("<html><b>" + escapeHtml(entry.getName()) + "</b><br>"
+                    + DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT)
+                            .format(new Date(entry.getTimestamp()))
+                    + "<br>" + localized("Ходів: ", "Moves: ") + entry.getMoveCount()
+                    + "  |  " + localized("Кораблі: ", "Ships: ") + entry.getPlayerShipsLeft() + " / "
+                    + entry.getEnemyShipsLeft() + "</html>");
+            return this;
+        }
+
+        private String escapeHtml(String text) {
+            StringBuilder escaped = new StringBuilder(text.length());
+            for (char c : text.toCharArray()) {
+                switch (c) {
+                    case '&':
+                        escaped.append("&amp;");
+                        break;
+                    case '<':
+                        escaped.append("&lt;");
+                        break;
+                    case '>':
+                        escaped.append("&gt;");
+                        break;
+                    case '"':
+                        escaped.append("&quot;");
+                        break;
+                    default:
+                        escaped.append(c);
+                }
+            }
+            return escaped.toString();
+        }
+
+        private class ThumbnailIcon implements Icon {
+            private SaveCatalog.Entry entry;
+
+            @Override
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                paintBoard(g, x, y, false);
+                paintBoard(g, x + Board.SIZE * THUMB_CELL + 4, y, true);
+            }
+
+            private void paintBoard(Graphics g, int x, int y, boolean enemyBoard) {
+                for (int r = 0; r < Board.SIZE; r++) {
+                    for (int c = 0; c < Board.SIZE; c++) {
+                        switch (entry.thumbnailCell(enemyBoard, r, c)) {
+                            case SaveCatalog.THUMB_SHIP:
+                                g.setColor(PLAYER_SHIP);
+                                break;
+                            case SaveCatalog.THUMB_MISS:
+                                g.setColor(MISS);
+                                break;
+                            case SaveCatalog.THUMB_HIT:
+                                g.setColor(HIT);
+                                break;
+                            default:
+                                g.setColor(FOG);
+                        }
+                        g.fillRect(x + c * THUMB_CELL, y + r * THUMB_CELL, THUMB_CELL, THUMB_CELL);
+                    }
+                }
+                g.setColor(Color.GRAY);
+                g.drawRect(x - 1, y - 1, Board.SIZE * THUMB_CELL + 1, Board.SIZE * THUMB_CELL + 1);
+            }
+
+            @Override
+            public int getIconWidth() {
+                return Board.SIZE * THUMB_CELL * 2 + 4;
+            }
+
+            @Override
+            public int getIconHeight() {
+                return Board.SIZE * THUMB_CELL;
+            }
+        }
+    }
 }
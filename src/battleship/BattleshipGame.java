@@ -1,9 +1,19 @@
 package battleship;
 
+import java.io.IOException;
 import javax.swing.SwingUtilities;
 
 public class BattleshipGame {
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(BattleshipFrame::new);
+        Preloader preloader = Preloader.start();
+        int metricsPort = Integer.getInteger(MetricsServer.PORT_PROPERTY, -1);
+        if (metricsPort >= 0) {
+            try {
+                MetricsServer.start(metricsPort, preloader::isReady);
+            } catch (IOException ex) {
+                System.err.println("Metrics endpoint not started: " + ex.getMessage());
+            }
+        }
+        SwingUtilities.invokeLater(() -> new BattleshipFrame(preloader));
     }
 }
@@ -16,6 +16,14 @@ class Board implements Serializable {
     private final List<Ship> ships = new ArrayList<>();
     private final Random random = new Random();
     private boolean virtualFleet;
+    private transient long positionHash;
+    private transient boolean hashed;
+    private transient long[] dirty;
+
+    /** Receives the cells drained by {@link #drainDirty}. */
+    interface CellVisitor {
+        void visit(int row, int col);
+    }
 
     Board() {
         this(true);
@@ -38,6 +46,8 @@ class Board implements Serializable {
 
     void reset(boolean autoPlace) {
         ships.clear();
+        hashed = false;
+        dirty = null;
         for (int r = 0; r < SIZE; r++) {
             for (int c = 0; c < SIZE; c++) {
                 cells[r][c] = new Cell(r, c);
@@ -50,6 +60,8 @@ class Board implements Serializable {
 
     void clearFleet() {
         ships.clear();
+        hashed = false;
+        dirty = null;
         for (int r = 0; r < SIZE; r++) {
             for (int c = 0; c < SIZE; c++) {
                 cells[r][c].setShip(null);
@@ -77,16 +89,105 @@ class Board implements Serializable {
         if (cell.isShot()) {
             return ShotResult.already(row, col);
         }
+        int sunkBefore = hashed && cell.hasShip() ? sunkShipsOfLength(cell.getShip().size()) : 0;
         cell.markShot();
+        markDirty(cell);
         if (cell.hasShip()) {
             Ship ship = cell.getShip();
             ship.registerHit();
+            if (ship.isSunk()) {
+                rehashSunk(ship, cell, sunkBefore);
+                for (Cell shipCell : ship.getCells()) {
+                    markDirty(shipCell);
+                }
+            } else {
+                rehash(cell, Zobrist.FOG);
+            }
             return ShotResult.hit(row, col, ship, ship.isSunk());
         }
         cell.setMiss(true);
+        rehash(cell, Zobrist.FOG);
         return ShotResult.miss(row, col);
     }
 
+    /**
+     * Zobrist hash of what the shooter can see on this board, maintained incrementally; equal
+     * observable positions have equal hashes across boards and matches.
+     */
+    long positionHash() {
+        if (!hashed) {
+            positionHash = Zobrist.hash(this);
+            hashed = true;
+        }
+        return positionHash;
+    }
+
+    /** Forces a full rehash after cells were changed outside the shot methods. */
+    void invalidatePositionHash() {
+        hashed = false;
+    }
+
+    /**
+     * Reports every cell whose shown state changed since the previous call and clears the set.
+     * A new, reset or restored board reports all cells. The board UI is the only consumer.
+     */
+    int drainDirty(CellVisitor visitor) {
+        long[] changed = dirty;
+        dirty = new long[(SIZE * SIZE + 63) / 64];
+        int count = 0;
+        for (int word = 0; word < dirty.length; word++) {
+            long bits = changed == null ? -1L : changed[word];
+            while (bits != 0) {
+                int index = word * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (index >= SIZE * SIZE) {
+                    break;
+                }
+                visitor.visit(index / SIZE, index % SIZE);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Makes the next {@link #drainDirty} report every cell. */
+    void markAllDirty() {
+        dirty = null;
+    }
+
+    private void markDirty(Cell cell) {
+        if (dirty != null) {
+            int index = cell.getRow() * SIZE + cell.getCol();
+            dirty[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private void rehash(Cell cell, int before) {
+        if (hashed) {
+            positionHash ^= Zobrist.cell(cell, before) ^ Zobrist.cell(cell, Zobrist.state(cell));
+        }
+    }
+
+    private void rehashSunk(Ship ship, Cell lastHit, int sunkBefore) {
+        if (!hashed) {
+            return;
+        }
+        for (Cell shipCell : ship.getCells()) {
+            rehash(shipCell, shipCell == lastHit ? Zobrist.FOG : Zobrist.HIT);
+        }
+        positionHash ^= Zobrist.sunkShip(ship.size(), sunkBefore);
+    }
+
+    private int sunkShipsOfLength(int length) {
+        int count = 0;
+        for (Ship ship : ships) {
+            if (ship.isSunk() && ship.size() == length) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     boolean allShipsSunk() {
         if (virtualFleet || ships.isEmpty()) {
             return false;
@@ -99,9 +200,13 @@ class Board implements Serializable {
     }
 
     private void placeFleet() {
+        FlightEvents.FleetPlacement event = new FlightEvents.FleetPlacement();
+        event.begin();
+        int attempts = 0;
         for (int length : FLEET) {
             boolean placed = false;
             while (!placed) {
+                attempts++;
                 boolean horizontal = random.nextBoolean();
                 int row = random.nextInt(SIZE);
                 int col = random.nextInt(SIZE);
@@ -111,6 +216,11 @@ class Board implements Serializable {
                 }
             }
         }
+        if (event.shouldCommit()) {
+            event.ships = FLEET.length;
+            event.attempts = attempts;
+            event.commit();
+        }
     }
 
     boolean canPlaceShip(int length, int row, int col, boolean horizontal) {
@@ -143,11 +253,31 @@ class Board implements Serializable {
             Cell cell = cells[r][c];
             cell.setShip(ship);
             ship.addCell(cell);
+            markDirty(cell);
         }
         ships.add(ship);
         return true;
     }
 
+    /** A new board with the same ship layout, nothing shot yet. */
+    Board copyFleet() {
+        Board copy = new Board(false);
+        copy.virtualFleet = virtualFleet;
+        for (Ship ship : ships) {
+            List<Cell> shipCells = ship.getCells();
+            Cell first = shipCells.get(0);
+            int row = first.getRow();
+            int col = first.getCol();
+            for (Cell cell : shipCells) {
+                row = Math.min(row, cell.getRow());
+                col = Math.min(col, cell.getCol());
+            }
+            boolean horizontal = shipCells.size() == 1 || shipCells.get(1).getRow() == first.getRow();
+            copy.placeShip(shipCells.size(), row, col, horizontal);
+        }
+        return copy;
+    }
+
     List<Point> availableTargets() {
         List<Point> targets = new ArrayList<>();
         for (int r = 0; r < SIZE; r++) {
@@ -186,6 +316,8 @@ class Board implements Serializable {
                     if (!neighbor.hasShip() && !neighbor.isShot()) {
                         neighbor.markShot();
                         neighbor.setMiss(true);
+                        rehash(neighbor, Zobrist.FOG);
+                        markDirty(neighbor);
                     }
                 }
             }
@@ -205,21 +337,28 @@ class Board implements Serializable {
             return ShotResult.already(row, col);
         }
         cell.markShot();
+        markDirty(cell);
         if (outcome == ShotOutcome.MISS) {
             cell.setMiss(true);
             cell.setRemoteHit(false);
+            rehash(cell, Zobrist.FOG);
             return ShotResult.miss(row, col);
         }
         cell.setMiss(false);
         cell.setRemoteHit(true);
         cell.setRemoteSunk(false);
+        rehash(cell, Zobrist.FOG);
         if (outcome == ShotOutcome.SUNK && sunkCells != null && !sunkCells.isEmpty()) {
             Ship ship = new Ship(this);
+            long previousKeys = 0;
             for (Point p : sunkCells) {
                 if (p.x < 0 || p.y < 0 || p.x >= SIZE || p.y >= SIZE) {
                     continue;
                 }
                 Cell sunkCell = cells[p.x][p.y];
+                if (!ship.getCells().contains(sunkCell)) {
+                    previousKeys ^= Zobrist.cell(sunkCell, Zobrist.state(sunkCell));
+                }
                 sunkCell.setShip(ship);
                 if (!ship.getCells().contains(sunkCell)) {
                     ship.addCell(sunkCell);
@@ -228,8 +367,15 @@ class Board implements Serializable {
                 sunkCell.setMiss(false);
                 sunkCell.setRemoteHit(true);
                 sunkCell.setRemoteSunk(true);
+                markDirty(sunkCell);
             }
             ship.forceSunk();
+            if (hashed) {
+                positionHash ^= previousKeys ^ Zobrist.sunkShip(ship.size(), sunkShipsOfLength(ship.size()));
+                for (Cell sunkCell : ship.getCells()) {
+                    positionHash ^= Zobrist.cell(sunkCell, Zobrist.SUNK);
+                }
+            }
             ships.add(ship);
             return ShotResult.hit(row, col, ship, true);
         }
@@ -0,0 +1,107 @@
+package battleship;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+
+/**
+ * Overview of a {@link BoardView} inside a scroll pane. The board is downsampled into a small
+ * bitmap, one pixel per block of cells showing the most important state in the block, and a changed
+ * cell only recolours its own pixel. The visible part of the board is outlined; clicking or dragging
+ * centres the viewport there.
+ */
+class BoardMinimap extends JComponent {
+    private static final int MAX_PIXELS = 128;
+    private static final int PREFERRED_SIZE = 120;
+    private static final Color VIEWPORT = new Color(0xd32f2f);
+    private static final int[] PRIORITY = {0, 2, 1, 3, 4};
+
+    private final BoardView view;
+    private final JViewport viewport;
+    private final int block;
+    private final BufferedImage bitmap;
+
+    BoardMinimap(BoardView view, JViewport viewport) {
+        this.view = view;
+        this.viewport = viewport;
+        int size = view.getBoardSize();
+        this.block = (size + MAX_PIXELS - 1) / MAX_PIXELS;
+        int pixels = (size + block - 1) / block;
+        this.bitmap = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        for (int r = 0; r < size; r += block) {
+            for (int c = 0; c < size; c += block) {
+                cellChanged(r, c);
+            }
+        }
+        setPreferredSize(new Dimension(PREFERRED_SIZE, PREFERRED_SIZE));
+        viewport.addChangeListener(e -> repaint());
+        view.setMinimap(this);
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                centerOn(e.getX(), e.getY());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                centerOn(e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /** Recolours the pixel covering the cell; costs one block of cells, not the whole board. */
+    void cellChanged(int row, int col) {
+        int size = view.getBoardSize();
+        int top = row / block * block;
+        int left = col / block * block;
+        int best = BoardView.FOG;
+        for (int r = top; r < Math.min(size, top + block); r++) {
+            for (int c = left; c < Math.min(size, left + block); c++) {
+                int state = view.getCell(r, c);
+                if (PRIORITY[state] > PRIORITY[best]) {
+                    best = state;
+                }
+            }
+        }
+        bitmap.setRGB(col / block, row / block, BoardView.colorOf(best).getRGB());
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int side = Math.min(getWidth(), getHeight());
+        g.drawImage(bitmap, 0, 0, side, side, null);
+        if (view.getWidth() <= 0 || view.getHeight() <= 0) {
+            return;
+        }
+        Rectangle visible = viewport.getViewRect();
+        double sx = side / (double) view.getWidth();
+        double sy = side / (double) view.getHeight();
+        g.setColor(VIEWPORT);
+        g.drawRect((int) (visible.x * sx), (int) (visible.y * sy),
+                Math.max(2, (int) (visible.width * sx) - 1), Math.max(2, (int) (visible.height * sy) - 1));
+    }
+
+    private void centerOn(int x, int y) {
+        int side = Math.min(getWidth(), getHeight());
+        if (side <= 0) {
+            return;
+        }
+        Rectangle visible = viewport.getViewRect();
+        int targetX = (int) (x / (double) side * view.getWidth()) - visible.width / 2;
+        int targetY = (int) (y / (double) side * view.getHeight()) - visible.height / 2;
+        int maxX = Math.max(0, view.getWidth() - visible.width);
+        int maxY = Math.max(0, view.getHeight() - visible.height);
+        viewport.setViewPosition(
+                new Point(Math.max(0, Math.min(maxX, targetX)), Math.max(0, Math.min(maxY, targetY))));
+    }
+}
@@ -0,0 +1,82 @@
+package battleship;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseWheelEvent;
+import javax.swing.BorderFactory;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Scroll pane around a {@link BoardView} with zoom and a minimap. The board fits its area until the
+ * player zooms with Ctrl+wheel, anchored at the pointer; zooming out past the fitting size fits
+ * again. The minimap shows only while the board is zoomed, so parts of it may be out of view.
+ */
+class BoardScroller extends JPanel {
+    private static final double ZOOM_STEP = 1.25;
+
+    private final BoardView view;
+    private final JScrollPane scrollPane;
+    private final BoardMinimap minimap;
+
+    BoardScroller(BoardView view) {
+        super(new BorderLayout(4, 4));
+        this.view = view;
+        scrollPane = new JScrollPane(view);
+        scrollPane.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
+        scrollPane.setWheelScrollingEnabled(true);
+        minimap = new BoardMinimap(view, scrollPane.getViewport());
+        minimap.setVisible(false);
+        add(scrollPane, BorderLayout.CENTER);
+        add(minimap, BorderLayout.EAST);
+        view.addMouseWheelListener(this::wheelMoved);
+    }
+
+    private void wheelMoved(MouseWheelEvent e) {
+        if (!e.isControlDown()) {
+            scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(view, e, scrollPane));
+            return;
+        }
+        zoomBy(e.getWheelRotation() < 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getPoint());
+        e.consume();
+    }
+
+    private void zoomBy(double factor, Point anchor) {
+        double current = view.getZoom() > 0 ? view.getZoom() : view.getCellSize();
+        int next = (int) Math.round(current * factor);
+        if (next == (int) Math.round(current)) {
+            next += factor > 1 ? 1 : -1;
+        }
+        double fit = fitCellSize();
+        setZoom(next <= fit ? 0 : next, anchor);
+    }
+
+    /** Applies a zoom level keeping the board point under {@code anchor} (or the centre) in place. */
+    private void setZoom(int cellSize, Point anchor) {
+        Rectangle visible = scrollPane.getViewport().getViewRect();
+        Point pivot = anchor != null ? anchor
+                : new Point(visible.x + visible.width / 2, visible.y + visible.height / 2);
+        double oldCell = view.getCellSize();
+        view.setZoom(cellSize);
+        view.setSize(view.getPreferredSize());
+        scrollPane.validate();
+        double scale = oldCell > 0 ? view.getCellSize() / oldCell : 1;
+        int x = (int) Math.round(pivot.x * scale) - (pivot.x - visible.x);
+        int y = (int) Math.round(pivot.y * scale) - (pivot.y - visible.y);
+        int maxX = Math.max(0, view.getWidth() - visible.width);
+        int maxY = Math.max(0, view.getHeight() - visible.height);
+        scrollPane.getViewport().setViewPosition(
+                new Point(Math.max(0, Math.min(maxX, x)), Math.max(0, Math.min(maxY, y))));
+        minimap.setVisible(view.getZoom() > 0);
+        revalidate();
+    }
+
+    private double fitCellSize() {
+        Dimension extent = scrollPane.getViewport().getExtentSize();
+        return (Math.min(extent.width, extent.height) - 1) / (double) view.getBoardSize();
+    }
+}
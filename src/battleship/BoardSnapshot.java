@@ -0,0 +1,85 @@
+package battleship;
+
+/**
+ * Immutable shot state of one board. Cell flags are kept in small leaves under a root array, so
+ * {@link #with} copies the root and one leaf and shares every other leaf with the previous snapshot.
+ * Ships are not part of the snapshot; their layout does not change once the battle has started.
+ */
+final class BoardSnapshot {
+    static final int SHOT = 1;
+    static final int MISS = 2;
+    static final int REMOTE_HIT = 4;
+    static final int REMOTE_SUNK = 8;
+
+    private static final int LEAF_SIZE = 16;
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+
+    private final byte[][] leaves;
+
+    private BoardSnapshot(byte[][] leaves) {
+        this.leaves = leaves;
+    }
+
+    static BoardSnapshot of(Board board) {
+        byte[][] leaves = new byte[(CELLS + LEAF_SIZE - 1) / LEAF_SIZE][LEAF_SIZE];
+        Cell[][] cells = board.getCells();
+        for (int i = 0; i < CELLS; i++) {
+            leaves[i / LEAF_SIZE][i % LEAF_SIZE] = (byte) flagsOf(cells[i / Board.SIZE][i % Board.SIZE]);
+        }
+        return new BoardSnapshot(leaves);
+    }
+
+    static int flagsOf(Cell cell) {
+        return (cell.isShot() ? SHOT : 0) | (cell.isMiss() ? MISS : 0) | (cell.isRemoteHit() ? REMOTE_HIT : 0)
+                | (cell.isRemoteSunk() ? REMOTE_SUNK : 0);
+    }
+
+    int flags(int row, int col) {
+        int index = row * Board.SIZE + col;
+        return leaves[index / LEAF_SIZE][index % LEAF_SIZE];
+    }
+
+    BoardSnapshot with(int row, int col, int flags) {
+        int index = row * Board.SIZE + col;
+        byte[] leaf = leaves[index / LEAF_SIZE];
+        if (leaf[index % LEAF_SIZE] == flags) {
+            return this;
+        }
+        byte[][] root = leaves.clone();
+        byte[] copy = leaf.clone();
+        copy[index % LEAF_SIZE] = (byte) flags;
+        root[index / LEAF_SIZE] = copy;
+        return new BoardSnapshot(root);
+    }
+
+    /** Returns a snapshot that matches {@code board} at the given cell. */
+    BoardSnapshot sync(Board board, int row, int col) {
+        return with(row, col, flagsOf(board.getCells()[row][col]));
+    }
+
+    /** Writes the cell flags back into {@code board} and recounts hits on its ships. */
+    void restore(Board board) {
+        Cell[][] cells = board.getCells();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                int flags = flags(r, c);
+                Cell cell = cells[r][c];
+                cell.setShot((flags & SHOT) != 0);
+                cell.setMiss((flags & MISS) != 0);
+                cell.setRemoteHit((flags & REMOTE_HIT) != 0);
+                cell.setRemoteSunk((flags & REMOTE_SUNK) != 0);
+            }
+        }
+        for (Ship ship : board.getShips()) {
+            int hits = 0;
+            for (Cell cell : ship.getCells()) {
+                if (cell.isShot()) {
+                    hits++;
+                }
+            }
+            ship.setHits(hits);
+        }
+        board.invalidatePositionHash();
+        board.markAllDirty();
+    }
+}
@@ -0,0 +1,410 @@
+package battleship;
+
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+/**
+ * One board painted as a single component. Cells are plain state bytes; changing one repaints
+ * only its rectangle and painting blits cached tiles for the cells inside the clip, so the cost
+ * does not depend on the board size. Clicks are hit-tested to a cell and reported when it is clickable.
+ */
+class BoardView extends JComponent implements Scrollable {
+    static final int FOG = 0;
+    static final int SHIP = 1;
+    static final int MISS = 2;
+    static final int HIT = 3;
+    static final int SUNK = 4;
+
+    static final int EFFECT_NONE = 0;
+    static final int EFFECT_SHOT = 1;
+    static final int EFFECT_SPLASH = 2;
+    static final int EFFECT_SINK = 3;
+
+    /** Fill colour of a cell state; shared by the tiles and the minimap. */
+    static Color colorOf(int state) {
+        switch (state) {
+            case SHIP:
+                return BattleshipFrame.PLAYER_SHIP;
+            case MISS:
+                return BattleshipFrame.MISS;
+            case HIT:
+                return BattleshipFrame.HIT;
+            case SUNK:
+                return BattleshipFrame.SUNK;
+            default:
+                return BattleshipFrame.FOG;
+        }
+    }
+
+    interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    static final int MAX_ZOOM = 64;
+    private static final int MAX_CELL = 32;
+    private static final int MIN_CELL = 8;
+    private static final int PREFERRED_BOARD = 10 * MAX_CELL;
+    private static final Color GRID = Color.GRAY;
+    private static final Color HOVER = new Color(0x546e7a);
+    private static final TileCache TILES = new TileCache();
+    private static final Color HINT_BEST = new Color(0xbf360c);
+
+    private final int size;
+    private final byte[] states;
+    private final boolean[] clickable;
+    private final byte[] effects;
+    private final float[] effectProgress;
+    private int activeEffects;
+    private final Dimension fitSize;
+    private int zoom;
+    private BoardMinimap minimap;
+    private String timingName = "paint";
+    private HintEngine.Heatmap heatmap;
+    private CellListener listener;
+    private int hoverIndex = -1;
+
+    BoardView(int size) {
+        this.size = size;
+        this.states = new byte[size * size];
+        this.clickable = new boolean[size * size];
+        this.effects = new byte[size * size];
+        this.effectProgress = new float[size * size];
+        int cell = Math.max(MIN_CELL, Math.min(MAX_CELL, PREFERRED_BOARD / size));
+        fitSize = new Dimension(cell * size + 1, cell * size + 1);
+        setOpaque(true);
+        setFont(UIManager.getFont("Label.font"));
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int index = indexAt(e.getX(), e.getY());
+                if (SwingUtilities.isLeftMouseButton(e) && index >= 0 && clickable[index] && listener != null
+                        && isEnabled()) {
+                    listener.cellClicked(index / size, index % size);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHover(indexAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    int getBoardSize() {
+        return size;
+    }
+
+    /** Cell size in pixels when zoomed, or 0 when the board stretches to fit its viewport. */
+    int getZoom() {
+        return zoom;
+    }
+
+    void setZoom(int cellSize) {
+        int value = cellSize <= 0 ? 0 : Math.max(MIN_CELL, Math.min(MAX_ZOOM, cellSize));
+        if (value != zoom) {
+            zoom = value;
+            revalidate();
+            repaint();
+        }
+    }
+
+    /** Current on-screen cell size; fractional when the board is stretched. */
+    double getCellSize() {
+        return (getWidth() - 1) / (double) size;
+    }
+
+    /** Shows a hint heatmap over unshot cells, or hides it when {@code null}. */
+    void setHeatmap(HintEngine.Heatmap heatmap) {
+        if (heatmap != this.heatmap) {
+            this.heatmap = heatmap;
+            repaint();
+        }
+    }
+
+    /** Name under which {@link EdtMonitor} records this view's paint time. */
+    void setTimingName(String timingName) {
+        this.timingName = timingName;
+    }
+
+    void setMinimap(BoardMinimap minimap) {
+        this.minimap = minimap;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        return zoom == 0 ? new Dimension(fitSize) : new Dimension(zoom * size + 1, zoom * size + 1);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(fitSize);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return Math.max(1, (int) Math.round(getCellSize()));
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        int extent = orientation == SwingConstants.HORIZONTAL ? visible.width : visible.height;
+        return Math.max(1, extent - getScrollableUnitIncrement(visible, orientation, direction));
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return zoom == 0;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return zoom == 0;
+    }
+
+    void setCellListener(CellListener listener) {
+        this.listener = listener;
+    }
+
+    int getCell(int row, int col) {
+        return states[row * size + col];
+    }
+
+    void setCell(int row, int col, int state) {
+        int index = row * size + col;
+        if (states[index] != state) {
+            states[index] = (byte) state;
+            repaintCell(index);
+            if (minimap != null) {
+                minimap.cellChanged(row, col);
+            }
+        }
+    }
+
+    boolean isClickable(int row, int col) {
+        return clickable[row * size + col];
+    }
+
+    void setClickable(int row, int col, boolean value) {
+        int index = row * size + col;
+        if (clickable[index] != value) {
+            clickable[index] = value;
+            if (index == hoverIndex) {
+                updateCursor();
+                repaintCell(index);
+            }
+        }
+    }
+
+    void setAllClickable(boolean value) {
+        Arrays.fill(clickable, value);
+        updateCursor();
+        if (hoverIndex >= 0) {
+            repaintCell(hoverIndex);
+        }
+    }
+
+    /** Overlays an animation frame on a cell; {@link #EFFECT_NONE} removes it. Driven by {@link AnimationEngine}. */
+    void setEffect(int row, int col, int effect, float progress) {
+        int index = row * size + col;
+        if (effects[index] == effect && effectProgress[index] == progress) {
+            return;
+        }
+        activeEffects += (effect != EFFECT_NONE ? 1 : 0) - (effects[index] != EFFECT_NONE ? 1 : 0);
+        effects[index] = (byte) effect;
+        effectProgress[index] = progress;
+        repaintCell(index);
+    }
+
+    /** Bounds of a cell in component coordinates, including its grid line. */
+    Rectangle cellBounds(int row, int col) {
+        int x0 = edge(col, getWidth());
+        int y0 = edge(row, getHeight());
+        return new Rectangle(x0, y0, edge(col + 1, getWidth()) - x0 + 1, edge(row + 1, getHeight()) - y0 + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long started = EdtMonitor.get().begin();
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            int firstCol = Math.max(0, colAt(clip.x) - 1);
+            int lastCol = Math.min(size - 1, colAt(clip.x + clip.width) + 1);
+            int firstRow = Math.max(0, rowAt(clip.y) - 1);
+            int lastRow = Math.min(size - 1, rowAt(clip.y + clip.height) + 1);
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            for (int r = firstRow; r <= lastRow; r++) {
+                int y0 = edge(r, getHeight());
+                int h = edge(r + 1, getHeight()) - y0;
+                for (int c = firstCol; c <= lastCol; c++) {
+                    int x0 = edge(c, getWidth());
+                    TILES.draw(g2, gc, getFont(), states[r * size + c], x0, y0, edge(c + 1, getWidth()) - x0, h);
+                }
+            }
+            if (heatmap != null && heatmap.getMax() > 0f) {
+                paintHeatmap(g2, firstRow, lastRow, firstCol, lastCol);
+            }
+            if (activeEffects > 0) {
+                paintEffects(g2, firstRow, lastRow, firstCol, lastCol);
+            }
+            g2.setColor(GRID);
+            g2.drawLine(0, getHeight() - 1, getWidth() - 1, getHeight() - 1);
+            g2.drawLine(getWidth() - 1, 0, getWidth() - 1, getHeight() - 1);
+            if (hoverIndex >= 0 && clickable[hoverIndex] && isEnabled()) {
+                Rectangle hover = cellBounds(hoverIndex / size, hoverIndex % size);
+                g2.setColor(HOVER);
+                g2.drawRect(hover.x, hover.y, hover.width - 1, hover.height - 1);
+                g2.drawRect(hover.x + 1, hover.y + 1, hover.width - 3, hover.height - 3);
+            }
+        } finally {
+            g2.dispose();
+            EdtMonitor.get().end(timingName, started);
+        }
+    }
+
+    private void paintHeatmap(Graphics2D g, int firstRow, int lastRow, int firstCol, int lastCol) {
+        HintEngine.Heatmap map = heatmap;
+        int last = Math.min(size, map.getSize()) - 1;
+        for (int r = firstRow; r <= Math.min(lastRow, last); r++) {
+            for (int c = firstCol; c <= Math.min(lastCol, last); c++) {
+                float p = map.probability(r, c);
+                if (p <= 0f || states[r * size + c] != FOG) {
+                    continue;
+                }
+                Rectangle cell = cellBounds(r, c);
+                float relative = p / map.getMax();
+                g.setColor(new Color(0xff, 0x8f, 0x00, (int) (30 + 150 * relative)));
+                g.fillRect(cell.x + 1, cell.y + 1, cell.width - 2, cell.height - 2);
+                if (relative >= 1f) {
+                    g.setColor(HINT_BEST);
+                    g.drawRect(cell.x + 2, cell.y + 2, cell.width - 5, cell.height - 5);
+                }
+            }
+        }
+    }
+
+    private void paintEffects(Graphics2D g, int firstRow, int lastRow, int firstCol, int lastCol) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                int index = r * size + c;
+                if (effects[index] == EFFECT_NONE) {
+                    continue;
+                }
+                float p = effectProgress[index];
+                Rectangle cell = cellBounds(r, c);
+                int cx = cell.x + cell.width / 2;
+                int cy = cell.y + cell.height / 2;
+                int extent = Math.min(cell.width, cell.height) - 2;
+                int alpha = (int) (255 * (1f - p));
+                switch (effects[index]) {
+                    case EFFECT_SHOT: {
+                        int radius = Math.max(1, (int) (extent / 2f * (1f - p)));
+                        g.setColor(new Color(0xd3, 0x2f, 0x2f, alpha));
+                        g.drawOval(cx - radius, cy - radius, radius * 2, radius * 2);
+                        g.drawLine(cx - radius, cy, cx + radius, cy);
+                        g.drawLine(cx, cy - radius, cx, cy + radius);
+                        break;
+                    }
+                    case EFFECT_SPLASH: {
+                        int radius = Math.max(1, (int) (extent / 2f * p));
+                        g.setColor(new Color(0x19, 0x76, 0xd2, alpha));
+                        g.drawOval(cx - radius, cy - radius, radius * 2, radius * 2);
+                        break;
+                    }
+                    case EFFECT_SINK:
+                        g.setColor(new Color(0x3e, 0x27, 0x23, (int) (alpha * 0.6f)));
+                        g.fillRect(cell.x + 1, cell.y + 1, cell.width - 2, cell.height - 2);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    private void setHover(int index) {
+        if (index == hoverIndex) {
+            return;
+        }
+        int previous = hoverIndex;
+        hoverIndex = index;
+        if (previous >= 0) {
+            repaintCell(previous);
+        }
+        if (index >= 0) {
+            repaintCell(index);
+        }
+        updateCursor();
+    }
+
+    private void updateCursor() {
+        boolean hand = hoverIndex >= 0 && clickable[hoverIndex];
+        setCursor(hand ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    private void repaintCell(int index) {
+        repaint(cellBounds(index / size, index % size));
+    }
+
+    /** Pixel position of grid line {@code i}; cells share the space evenly and the last line fits inside. */
+    private int edge(int i, int extent) {
+        return (int) ((long) i * (extent - 1) / size);
+    }
+
+    private int colAt(int x) {
+        return cellAt(x, getWidth());
+    }
+
+    private int rowAt(int y) {
+        return cellAt(y, getHeight());
+    }
+
+    private int cellAt(int p, int extent) {
+        if (extent <= 1) {
+            return 0;
+        }
+        int cell = (int) Math.max(0, Math.min(size - 1, (long) p * size / (extent - 1)));
+        while (cell > 0 && edge(cell, extent) > p) {
+            cell--;
+        }
+        while (cell < size - 1 && edge(cell + 1, extent) <= p) {
+            cell++;
+        }
+        return cell;
+    }
+
+    private int indexAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= getWidth() - 1 || y >= getHeight() - 1) {
+            return -1;
+        }
+        return rowAt(y) * size + colAt(x);
+    }
+}
@@ -10,29 +10,91 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
- * Hunting AI that keeps state between turns and prioritizes finishing ships it has found.
+ * Hunting AI that keeps state between turns and prioritizes finishing ships it has found. With the
+ * {@link Strategy#DENSITY} strategy, searching shots go to the cell covered by most possible
+ * placements of the remaining fleet; those densities are cached by position hash for all matches.
  */
 class ComputerAI implements Serializable {
+    static final int TIER_HUNTER = 1;
+    static final int TIER_DENSITY = 2;
+
+    enum Strategy {
+        HUNTER(TIER_HUNTER),
+        DENSITY(TIER_DENSITY);
+
+        private final int tier;
+
+        Strategy(int tier) {
+            this.tier = tier;
+        }
+    }
+
     private static final long serialVersionUID = 1L;
+    static final int HIT_WEIGHT = 20;
+    private static final TranspositionCache<int[]> DENSITY_CACHE = new TranspositionCache<>(1 << 14);
+
     private final Random random = new Random();
+    private Strategy strategy = Strategy.DENSITY;
     private final Set<String> tried = new HashSet<>();
     private final Deque<Point> huntQueue = new ArrayDeque<>();
     private final List<Point> currentHits = new ArrayList<>();
+    private transient String lastPhase;
+    private transient int lastCandidates;
 
     Point chooseTarget(Board playerBoard) {
+        return chooseTarget(playerBoard, () -> false);
+    }
+
+    /** Returns null, with the hunt state untouched, once {@code cancelled} reports true. */
+    Point chooseTarget(Board playerBoard, BooleanSupplier cancelled) {
+        FlightEvents.AiDecision event = new FlightEvents.AiDecision();
+        event.begin();
+        long started = System.nanoTime();
+        Point target = pickTarget(playerBoard, cancelled);
+        Metrics.AI_DECISION.recordSince(started);
+        if (event.shouldCommit()) {
+            event.strategy = getStrategy().name();
+            event.phase = lastPhase;
+            event.candidates = lastCandidates;
+            event.commit();
+        }
+        return target;
+    }
+
+    private Point pickTarget(Board playerBoard, BooleanSupplier cancelled) {
         pruneQueue();
 
         Point oriented = selectAlongLine();
+        if (cancelled.getAsBoolean()) {
+            lastPhase = "cancelled";
+            return null;
+        }
         if (oriented != null) {
+            lastPhase = "line";
             return oriented;
         }
 
         if (!huntQueue.isEmpty()) {
+            lastPhase = "queue";
+            lastCandidates = huntQueue.size();
             return huntQueue.pollFirst();
         }
 
+        if (getStrategy() == Strategy.DENSITY) {
+            Point best = chooseByDensity(playerBoard, cancelled);
+            if (best != null) {
+                lastPhase = "density";
+                return best;
+            }
+        }
+        if (cancelled.getAsBoolean()) {
+            lastPhase = "cancelled";
+            return null;
+        }
+        lastPhase = "random";
         return chooseRandom(playerBoard);
     }
 
@@ -49,12 +111,56 @@ class ComputerAI implements Serializable {
         pruneQueue();
     }
 
+    int getTier() {
+        return getStrategy().tier;
+    }
+
+    /** Saves written before strategies existed deserialize without one and keep hunting randomly. */
+    Strategy getStrategy() {
+        return strategy == null ? Strategy.HUNTER : strategy;
+    }
+
+    void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    static TranspositionCache<int[]> densityCache() {
+        return DENSITY_CACHE;
+    }
+
     void reset() {
         tried.clear();
         huntQueue.clear();
         currentHits.clear();
     }
 
+    /** Rebuilds the hunt state from the shots visible on {@code playerBoard}, e.g. after an undo. */
+    void rebuild(Board playerBoard) {
+        reset();
+        Cell[][] cells = playerBoard.getCells();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                if (cells[r][c].isShot()) {
+                    tried.add(key(r, c));
+                }
+            }
+        }
+        for (Ship ship : playerBoard.getShips()) {
+            if (ship.isSunk()) {
+                markShipPerimeter(ship);
+            }
+        }
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                Cell cell = cells[r][c];
+                if (cell.isShot() && cell.hasShip() && !cell.getShip().isSunk()) {
+                    registerHit(new Point(r, c));
+                }
+            }
+        }
+        pruneQueue();
+    }
+
     private Point chooseRandom(Board board) {
         List<Point> remaining = new ArrayList<>();
         for (int r = 0; r < Board.SIZE; r++) {
@@ -64,6 +170,7 @@ class ComputerAI implements Serializable {
                 }
             }
         }
+        lastCandidates = remaining.size();
         if (remaining.isEmpty()) {
             return new Point(0, 0);
         }
@@ -71,6 +178,104 @@ class ComputerAI implements Serializable {
         return remaining.get(0);
     }
 
+    private Point chooseByDensity(Board board, BooleanSupplier cancelled) {
+        long key = board.positionHash();
+        int[] weights = DENSITY_CACHE.get(key);
+        if (weights == null) {
+            weights = placementDensity(board, cancelled);
+            if (weights == null) {
+                return null;
+            }
+            DENSITY_CACHE.put(key, weights);
+        }
+        List<Point> best = new ArrayList<>();
+        int bestWeight = 0;
+        int evaluated = 0;
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                int weight = weights[r * Board.SIZE + c];
+                if (weight == 0 || tried.contains(key(r, c))) {
+                    continue;
+                }
+                evaluated++;
+                if (weight < bestWeight) {
+                    continue;
+                }
+                if (weight > bestWeight) {
+                    best.clear();
+                    bestWeight = weight;
+                }
+                best.add(new Point(r, c));
+            }
+        }
+        lastCandidates = evaluated;
+        return best.isEmpty() ? null : best.get(random.nextInt(best.size()));
+    }
+
+    /**
+     * Counts, for every unknown cell, the placements of remaining ships that cover it. Placements
+     * through known hits count {@value #HIT_WEIGHT} times more. Only what the shooter can see is used.
+     */
+    static int[] placementDensity(Board board) {
+        return placementDensity(board, () -> false);
+    }
+
+    /** As {@link #placementDensity(Board)}, checking {@code cancelled} per ship; null if it was. */
+    private static int[] placementDensity(Board board, BooleanSupplier cancelled) {
+        int[] states = new int[Board.SIZE * Board.SIZE];
+        Cell[][] cells = board.getCells();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                states[r * Board.SIZE + c] = Zobrist.state(cells[r][c]);
+            }
+        }
+        List<Integer> remaining = new ArrayList<>();
+        for (int length : board.getFleetTemplate()) {
+            remaining.add(length);
+        }
+        for (Ship ship : board.getShips()) {
+            if (ship.isSunk()) {
+                remaining.remove(Integer.valueOf(ship.size()));
+            }
+        }
+        int[] weights = new int[states.length];
+        for (int length : remaining) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            for (int orientation = 0; orientation < (length == 1 ? 1 : 2); orientation++) {
+                int dr = orientation == 0 ? 0 : 1;
+                int dc = orientation == 0 ? 1 : 0;
+                for (int r = 0; r + dr * (length - 1) < Board.SIZE; r++) {
+                    for (int c = 0; c + dc * (length - 1) < Board.SIZE; c++) {
+                        addPlacement(states, weights, r, c, dr, dc, length);
+                    }
+                }
+            }
+        }
+        return weights;
+    }
+
+    private static void addPlacement(int[] states, int[] weights, int row, int col, int dr, int dc, int length) {
+        int hits = 0;
+        for (int i = 0; i < length; i++) {
+            int state = states[(row + dr * i) * Board.SIZE + col + dc * i];
+            if (state == Zobrist.MISS || state == Zobrist.SUNK) {
+                return;
+            }
+            if (state == Zobrist.HIT) {
+                hits++;
+            }
+        }
+        int weight = 1 + HIT_WEIGHT * hits;
+        for (int i = 0; i < length; i++) {
+            int index = (row + dr * i) * Board.SIZE + col + dc * i;
+            if (states[index] == Zobrist.FOG) {
+                weights[index] += weight;
+            }
+        }
+    }
+
     private Point selectAlongLine() {
         Orientation orientation = determineOrientation();
         if (orientation == null) {
@@ -91,6 +296,7 @@ class ComputerAI implements Serializable {
             candidates.add(new Point(maxRow + 1, col));
         }
 
+        lastCandidates = candidates.size();
         Collections.shuffle(candidates, random);
         for (Point candidate : candidates) {
             if (isAvailable(candidate)) {
@@ -0,0 +1,212 @@
+package battleship;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Optional jank monitor for the Swing event thread. Once started it times every dispatched event,
+ * probes how long a posted task waits before it runs, keeps rolling percentiles for named timings
+ * (board paints, {@code refreshBoards}) and runs a watchdog that logs the EDT stack whenever one
+ * event runs longer than the stall threshold. Stopped, it costs one volatile read per timing.
+ */
+final class EdtMonitor {
+    static final String DISPATCH = "dispatch";
+    static final String REFRESH = "refreshBoards";
+    static final String SHOT = "shot";
+
+    private static final int WINDOW = 512;
+    private static final long STALL_NANOS = Long.getLong("battleship.edt.stallMs", 200L) * 1_000_000L;
+    private static final long PROBE_NANOS = 100_000_000L;
+    private static final long LOG_NANOS = 10_000_000_000L;
+    private static final long WATCHDOG_MS = 20;
+    private static final EdtMonitor INSTANCE = new EdtMonitor();
+
+    /** Last {@link #WINDOW} samples of one timing, in nanoseconds. */
+    private static final class Samples {
+        private final long[] values = new long[WINDOW];
+        private int count;
+        private int next;
+
+        synchronized void add(long nanos) {
+            values[next] = nanos;
+            next = (next + 1) % WINDOW;
+            count = Math.min(WINDOW, count + 1);
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private final class TimedQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            if (!enabled) {
+                super.dispatchEvent(event);
+                return;
+            }
+            edt = Thread.currentThread();
+            eventSequence++;
+            busySince = System.nanoTime();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                // An outer event resumes after a nested loop (modal dialog) without being timed again.
+                busySince = 0;
+            }
+        }
+
+        void remove() {
+            pop();
+        }
+    }
+
+    private final Map<String, Samples> timings = new ConcurrentSkipListMap<>();
+    private volatile boolean enabled;
+    private volatile Thread edt;
+    private volatile long busySince;
+    private volatile long eventSequence;
+    private volatile boolean probePending;
+    private volatile String lastStall = "";
+    private TimedQueue queue;
+    private Thread watchdog;
+
+    private EdtMonitor() {
+    }
+
+    static EdtMonitor get() {
+        return INSTANCE;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    synchronized void start() {
+        if (enabled) {
+            return;
+        }
+        enabled = true;
+        if (queue == null) {
+            queue = new TimedQueue();
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+        }
+        watchdog = new Thread(this::watch, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    /** Stops the watchdog and hands the event queue back to AWT. */
+    synchronized void stop() {
+        enabled = false;
+        if (watchdog != null) {
+            watchdog.interrupt();
+            watchdog = null;
+        }
+        if (queue != null) {
+            queue.remove();
+            queue = null;
+        }
+    }
+
+    /** Start of a timed section, or 0 while the monitor is off. */
+    long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    void end(String name, long started) {
+        if (started != 0) {
+            record(name, System.nanoTime() - started);
+        }
+    }
+
+    void record(String name, long nanos) {
+        if (enabled) {
+            timings.computeIfAbsent(name, key -> new Samples()).add(nanos);
+        }
+    }
+
+    /** One line per timing with p50/p95/p99/max in milliseconds, followed by the last stall. */
+    String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Samples> entry : timings.entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            if (sorted.length == 0) {
+                continue;
+            }
+            builder.append(String.format("%-14s p50 %6.2f  p95 %6.2f  p99 %6.2f  max %7.2f ms  (n=%d)%n",
+                    entry.getKey(), millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6, sorted.length));
+        }
+        if (!lastStall.isEmpty()) {
+            builder.append(lastStall);
+        }
+        return builder.toString();
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private void watch() {
+        long nextProbe = 0;
+        long nextLog = System.nanoTime() + LOG_NANOS;
+        long reportedSequence = -1;
+        while (enabled) {
+            long now = System.nanoTime();
+            if (now >= nextProbe && !probePending) {
+                probePending = true;
+                long posted = now;
+                EventQueue.invokeLater(() -> {
+                    record(DISPATCH, System.nanoTime() - posted);
+                    probePending = false;
+                });
+                nextProbe = now + PROBE_NANOS;
+            }
+            long since = busySince;
+            long sequence = eventSequence;
+            Thread thread = edt;
+            if (since != 0 && now - since > STALL_NANOS && sequence != reportedSequence && thread != null) {
+                reportedSequence = sequence;
+                reportStall(thread, now - since);
+            }
+            if (now >= nextLog && !timings.isEmpty()) {
+                for (String line : summary().split("\\R")) {
+                    System.err.println("[edt] " + line);
+                }
+                nextLog = now + LOG_NANOS;
+            }
+            try {
+                Thread.sleep(WATCHDOG_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void reportStall(Thread thread, long blockedNanos) {
+        StackTraceElement[] stack = thread.getStackTrace();
+        StackTraceElement culprit = stack.length > 0 ? stack[0] : null;
+        for (StackTraceElement element : stack) {
+            if (element.getClassName().startsWith("battleship.") && !element.getClassName().startsWith(
+                    EdtMonitor.class.getName())) {
+                culprit = element;
+                break;
+            }
+        }
+        lastStall = String.format("last stall %.0f ms in %s", blockedNanos / 1e6, culprit);
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("EDT blocked for %.0f ms:%n", blockedNanos / 1e6));
+        for (StackTraceElement element : stack) {
+            builder.append("    at ").append(element).append(System.lineSeparator());
+        }
+        System.err.print("[edt] " + builder);
+    }
+}
@@ -0,0 +1,122 @@
+package battleship;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events, so game activity shows up next to GC and CPU in a recording. Each
+ * site creates the event and commits it only if {@code shouldCommit()}; with no recording running
+ * that is a single check and the allocation is optimised away. Enable with the {@code battleship}
+ * category or by event name, e.g. {@code -XX:StartFlightRecording:settings=default}.
+ */
+final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    @Name("battleship.Shot")
+    @Label("Shot")
+    @Category({"Battleship", "Game"})
+    @StackTrace(false)
+    static final class Shot extends Event {
+        @Label("Row")
+        int row;
+
+        @Label("Column")
+        int col;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("battleship.AiDecision")
+    @Label("AI Decision")
+    @Category({"Battleship", "AI"})
+    @Description("One target choice; the duration is the thinking time")
+    @StackTrace(false)
+    static final class AiDecision extends Event {
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Phase")
+        @Description("line, queue, density or random")
+        String phase;
+
+        @Label("Candidates Evaluated")
+        int candidates;
+    }
+
+    @Name("battleship.NetworkMessage")
+    @Label("Network Message")
+    @Category({"Battleship", "Network"})
+    @StackTrace(false)
+    static final class NetworkMessage extends Event {
+        @Label("Outbound")
+        boolean outbound;
+
+        @Label("Type")
+        String type;
+
+        @Label("Size")
+        @DataAmount
+        int bytes;
+    }
+
+    @Name("battleship.SaveOperation")
+    @Label("Save Operation")
+    @Category({"Battleship", "Persistence"})
+    @Description("Serializing or loading a save; the duration covers the operation")
+    @StackTrace(false)
+    static final class SaveOperation extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Save Name")
+        String name;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("battleship.FleetPlacement")
+    @Label("Fleet Placement")
+    @Category({"Battleship", "Game"})
+    @Description("Random fleet placement; attempts counts every position tried")
+    @StackTrace(false)
+    static final class FleetPlacement extends Event {
+        @Label("Ships")
+        int ships;
+
+        @Label("Attempts")
+        int attempts;
+    }
+
+    static void shot(ShotResult result) {
+        Shot event = new Shot();
+        if (event.shouldCommit()) {
+            event.row = result.getRow();
+            event.col = result.getCol();
+            event.outcome = result.getOutcome().name();
+            event.commit();
+        }
+    }
+
+    static void networkMessage(boolean outbound, String text) {
+        NetworkMessage event = new NetworkMessage();
+        if (event.shouldCommit()) {
+            int space = text.indexOf(' ');
+            event.outbound = outbound;
+            event.type = space < 0 ? text : text.substring(0, space);
+            event.bytes = text.length() + 1;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package battleship;
+
+import java.awt.Point;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retained size of one match: the {@link GameController} with its boards, ships, cells, AI and
+ * undo history. Objects are walked by reflection and sized for a 64-bit VM with compressed
+ * references (12-byte headers, 4-byte references, 8-byte alignment); JDK collections are sized
+ * from their contents because their internals are not open to reflection. Statistics, listeners
+ * and anything static are shared between matches and not counted.
+ *
+ * <p>{@link #main} is the regression check: it plays a match and fails when the footprint at start
+ * or end exceeds its budget ({@code -Dbattleship.footprint.startBudget} / {@code endBudget}, bytes).
+ * In the running game a walk is costly, so the gauges are fed only for one in
+ * {@code -Dbattleship.footprint.sampleEvery} new matches and not at all by default.
+ */
+final class FootprintMeter {
+    static final long START_BUDGET = Long.getLong("battleship.footprint.startBudget", 16 * 1024L);
+    static final long END_BUDGET = Long.getLong("battleship.footprint.endBudget", 64 * 1024L);
+    static final int SAMPLE_EVERY = Integer.getInteger("battleship.footprint.sampleEvery", 0);
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+    private static final AtomicLong STARTED = new AtomicLong();
+    private static final Set<GameController> SAMPLED =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /** Bytes and object counts of one walk, per class. */
+    static final class Footprint {
+        private final long bytes;
+        private final int objects;
+        private final Map<String, long[]> byClass;
+
+        private Footprint(long bytes, int objects, Map<String, long[]> byClass) {
+            this.bytes = bytes;
+            this.objects = objects;
+            this.byClass = byClass;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        int getObjects() {
+            return objects;
+        }
+
+        /** One line per class, largest first: bytes, objects, class name. */
+        String report() {
+            StringBuilder builder = new StringBuilder();
+            byClass.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .forEach(entry -> builder.append(String.format("%10d B %7d  %s%n", entry.getValue()[0],
+                            entry.getValue()[1], entry.getKey())));
+            builder.append(String.format("%10d B %7d  total%n", bytes, objects));
+            return builder.toString();
+        }
+    }
+
+    private final IdentityHashMap<Object, Boolean> seen = new IdentityHashMap<>();
+    private final Deque<Object> pending = new ArrayDeque<>();
+    private final Map<String, long[]> byClass = new TreeMap<>();
+    private long total;
+
+    private FootprintMeter() {
+    }
+
+    static Footprint measure(GameController controller) {
+        FootprintMeter meter = new FootprintMeter();
+        meter.push(controller);
+        while (!meter.pending.isEmpty()) {
+            meter.visit(meter.pending.pop());
+        }
+        return new Footprint(meter.total, meter.seen.size(), meter.byClass);
+    }
+
+    /** Call once a new match is fully set up; picks whether this match is sampled. */
+    static void recordStart(GameController controller) {
+        if (SAMPLE_EVERY <= 0 || STARTED.getAndIncrement() % SAMPLE_EVERY != 0) {
+            return;
+        }
+        SAMPLED.add(controller);
+        Metrics.FOOTPRINT_START.set(measure(controller).getBytes());
+    }
+
+    static void recordEnd(GameController controller) {
+        if (SAMPLE_EVERY > 0 && SAMPLED.remove(controller)) {
+            Metrics.FOOTPRINT_END.set(measure(controller).getBytes());
+        }
+    }
+
+    private void push(Object value) {
+        if (value == null || seen.containsKey(value) || isShared(value)) {
+            return;
+        }
+        seen.put(value, Boolean.TRUE);
+        pending.push(value);
+    }
+
+    private static boolean isShared(Object value) {
+        return value instanceof StatisticsManager || value instanceof GameController.MoveListener
+                || value instanceof Enum || value instanceof Class || value instanceof Thread;
+    }
+
+    private void visit(Object value) {
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            visitArray(value, type.getComponentType());
+        } else if (value instanceof String) {
+            add(type, align(HEADER + 12) + align(ARRAY_HEADER + ((String) value).length()));
+        } else if (value instanceof Collection) {
+            visitCollection((Collection<?>) value);
+        } else if (value instanceof Map) {
+            visitMap((Map<?, ?>) value);
+        } else if (value instanceof Random) {
+            add(type, align(HEADER + REFERENCE + 12) + align(HEADER + 8));
+        } else if (value instanceof Point) {
+            add(type, align(HEADER + 8));
+        } else {
+            visitFields(value, type);
+        }
+    }
+
+    private void visitArray(Object array, Class<?> component) {
+        int length = Array.getLength(array);
+        add(array.getClass(), align(ARRAY_HEADER + (long) length * sizeOf(component)));
+        if (!component.isPrimitive()) {
+            for (int i = 0; i < length; i++) {
+                push(Array.get(array, i));
+            }
+        }
+    }
+
+    /** Backing arrays are assumed no larger than the JDK's growth policy leaves them. */
+    private void visitCollection(Collection<?> collection) {
+        int size = collection.size();
+        long bytes;
+        if (collection instanceof Set) {
+            bytes = align(HEADER + REFERENCE) + hashMapBytes(size);
+        } else if (collection instanceof ArrayDeque) {
+            bytes = align(HEADER + 12) + align(ARRAY_HEADER + (long) REFERENCE * Math.max(16, powerOfTwo(size + 1)));
+        } else if (collection instanceof ArrayList) {
+            bytes = align(HEADER + 12) + align(ARRAY_HEADER + (long) REFERENCE * Math.max(10, size));
+        } else {
+            bytes = align(HEADER + 12) + (long) size * align(HEADER + 3 * REFERENCE);
+        }
+        add(collection.getClass(), bytes);
+        for (Object element : collection) {
+            push(element);
+        }
+    }
+
+    private void visitMap(Map<?, ?> map) {
+        add(map.getClass(), hashMapBytes(map.size()));
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            push(entry.getKey());
+            push(entry.getValue());
+        }
+    }
+
+    private void visitFields(Object value, Class<?> type) {
+        long shallow = HEADER;
+        for (Field field : fieldsOf(type)) {
+            shallow += sizeOf(field.getType());
+            if (!field.getType().isPrimitive() && field.canAccess(value)) {
+                try {
+                    push(field.get(value));
+                } catch (IllegalAccessException ignored) {
+                }
+            }
+        }
+        add(type, align(shallow));
+    }
+
+    private static List<Field> fieldsOf(Class<?> type) {
+        return FIELDS.computeIfAbsent(type, key -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = key; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (c.getPackageName().equals(FootprintMeter.class.getPackageName())) {
+                        field.setAccessible(true);
+                    }
+                    fields.add(field);
+                }
+            }
+            return fields;
+        });
+    }
+
+    private static long hashMapBytes(int size) {
+        int table = size == 0 ? 0 : powerOfTwo((int) Math.ceil(size / 0.75));
+        return align(HEADER + 4 * REFERENCE + 16) + (table == 0 ? 0 : align(ARRAY_HEADER + (long) REFERENCE * table))
+                + (long) size * align(HEADER + 4 + 3 * REFERENCE);
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private void add(Class<?> type, long bytes) {
+        long[] entry = byClass.computeIfAbsent(type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName(),
+                key -> new long[2]);
+        entry[0] += bytes;
+        entry[1]++;
+        total += bytes;
+    }
+
+    /** Plays a full match against the AI and checks both footprints against their budgets. */
+    public static void main(String[] args) {
+        GameController controller = new GameController(new Board(), new Board(), GameMode.VS_AI);
+        Footprint start = measure(controller);
+        ComputerAI shooter = new ComputerAI();
+        while (!controller.isGameOver()) {
+            if (controller.isPlayerTurn()) {
+                Point target = shooter.chooseTarget(controller.getAiBoard());
+                shooter.handleShotResult(target, controller.playerFire(target.x, target.y));
+            } else {
+                controller.aiFire();
+            }
+        }
+        Footprint end = measure(controller);
+        System.out.println("Match start:");
+        System.out.print(start.report());
+        System.out.println("Match end (" + controller.getMoveCount() + " moves):");
+        System.out.print(end.report());
+        boolean ok = check("start", start.getBytes(), START_BUDGET) & check("end", end.getBytes(), END_BUDGET);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static boolean check(String phase, long bytes, long budget) {
+        boolean ok = bytes <= budget;
+        System.out.printf("%s: %d bytes, budget %d: %s%n", phase, bytes, budget, ok ? "OK" : "OVER BUDGET");
+        return ok;
+    }
+}
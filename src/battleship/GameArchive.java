@@ -0,0 +1,291 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archive of finished games as fixed-size records in memory-mapped segment files. A record is
+ * <pre>
+ * 0   int   commit marker, written last
+ * 4   long  game id
+ * 12  long  start time
+ * 20  byte  mode
+ * 21  byte  flags (bit 0: player one won)
+ * 22  short move count
+ * 24  int   duration in milliseconds
+ * 32  ship numbers of both boards, one nibble per cell
+ * 132 moves, one short each: board bit 15, outcome bits 8-9, cell index bits 0-6
+ * </pre>
+ * Appending copies bytes into the mapped segment, so ingestion costs no system call per game.
+ * {@link Cursor} walks the segments as a flyweight view without building {@link Board} objects.
+ */
+class GameArchive {
+    static final String DIRECTORY = "archive";
+    static final int RECORD_SIZE = 544;
+    static final int SEGMENT_RECORDS = 1 << 14;
+    static final int MAX_MOVES = 2 * Board.SIZE * Board.SIZE;
+
+    private static final int COMMITTED = 0x47524331;
+    private static final int LAYOUT_OFFSET = 32;
+    private static final int MOVES_OFFSET = LAYOUT_OFFSET + Board.SIZE * Board.SIZE;
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+
+    private final Path directory;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private int position;
+
+    private static final class Holder {
+        private static final GameArchive INSTANCE = openShared();
+    }
+
+    GameArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Process-wide archive in {@link #DIRECTORY}, or {@code null} when another process owns it. */
+    static GameArchive get() {
+        return Holder.INSTANCE;
+    }
+
+    private static GameArchive openShared() {
+        GameArchive archive = new GameArchive(Path.of(DIRECTORY));
+        try {
+            archive.openForAppend();
+        } catch (IOException | OverlappingFileLockException ex) {
+            return null;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(archive::close, "archive-close"));
+        return archive;
+    }
+
+    synchronized void openForAppend() throws IOException {
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Архів ігор використовується іншим процесом");
+        }
+        List<Integer> segments = segmentNumbers(directory);
+        segmentNumber = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        mapSegment();
+        position = 0;
+        while (position < SEGMENT_RECORDS && segment.getInt(position * RECORD_SIZE) == COMMITTED) {
+            position++;
+        }
+    }
+
+    /**
+     * Appends one game. {@code layout} and {@code moves} use the {@link Replay} encoding: a ship
+     * number per cell for both boards, and 4 bytes (board, row, col, outcome) per move.
+     */
+    synchronized void append(long gameId, long startedAt, GameMode mode, boolean won, int durationMillis,
+            byte[] layout, byte[] moves, int moveCount) throws IOException {
+        if (segment == null) {
+            throw new IOException("Архів ігор закрито");
+        }
+        if (position == SEGMENT_RECORDS) {
+            segment.force();
+            channel.close();
+            segmentNumber++;
+            mapSegment();
+            position = 0;
+        }
+        int base = position * RECORD_SIZE;
+        int count = Math.min(moveCount, MAX_MOVES);
+        segment.putLong(base + 4, gameId)
+                .putLong(base + 12, startedAt)
+                .put(base + 20, (byte) mode.ordinal())
+                .put(base + 21, (byte) (won ? 1 : 0))
+                .putShort(base + 22, (short) count)
+                .putInt(base + 24, durationMillis);
+        for (int i = 0; i < CELLS; i++) {
+            segment.put(base + LAYOUT_OFFSET + i, (byte) ((layout[i] & 0x0f) << 4 | (layout[CELLS + i] & 0x0f)));
+        }
+        for (int i = 0; i < count; i++) {
+            int offset = i * Replay.MOVE_SIZE;
+            int cell = moves[offset + 1] * Board.SIZE + moves[offset + 2];
+            int packed = (moves[offset] != 0 ? 0x8000 : 0) | (moves[offset + 3] & 0x03) << 8 | cell;
+            segment.putShort(base + MOVES_OFFSET + i * 2, (short) packed);
+        }
+        segment.putInt(base, COMMITTED);
+        position++;
+    }
+
+    /** Forces mapped pages of the current segment to disk. */
+    synchronized void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    synchronized void close() {
+        flush();
+        segment = null;
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            if (lock != null) {
+                lock.release();
+                lockChannel.close();
+            }
+        } catch (IOException ignored) {
+        }
+        channel = null;
+        lock = null;
+    }
+
+    Cursor cursor() {
+        return new Cursor(directory);
+    }
+
+    private void mapSegment() throws IOException {
+        channel = FileChannel.open(segmentPath(directory, segmentNumber), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SEGMENT_RECORDS * RECORD_SIZE);
+    }
+
+    private static Path segmentPath(Path directory, int number) {
+        return directory.resolve(String.format("segment-%06d.arc", number));
+    }
+
+    private static List<Integer> segmentNumbers(Path directory) {
+        List<Integer> result = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.arc")) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    result.add(Integer.parseInt(name.substring(8, name.length() - 4)));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        result.sort(null);
+        return result;
+    }
+
+    /**
+     * Forward-only view over every committed record. {@link #next()} moves the view to the next game;
+     * the accessors read straight from the mapped segment, so nothing is allocated per game.
+     */
+    static final class Cursor {
+        private final Path directory;
+        private final List<Integer> segments;
+        private int segmentIndex = -1;
+        private MappedByteBuffer segment;
+        private int records;
+        private int record = -1;
+        private int base;
+
+        private Cursor(Path directory) {
+            this.directory = directory;
+            this.segments = segmentNumbers(directory);
+        }
+
+        boolean next() {
+            while (true) {
+                if (segment != null && record + 1 < records) {
+                    record++;
+                    base = record * RECORD_SIZE;
+                    if (segment.getInt(base) == COMMITTED) {
+                        return true;
+                    }
+                    segment = null;
+                }
+                if (!openNextSegment()) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean openNextSegment() {
+            while (++segmentIndex < segments.size()) {
+                Path path = segmentPath(directory, segments.get(segmentIndex));
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size < RECORD_SIZE) {
+                        continue;
+                    }
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size - size % RECORD_SIZE);
+                    records = (int) (size / RECORD_SIZE);
+                    record = -1;
+                    return true;
+                } catch (IOException ignored) {
+                }
+            }
+            segment = null;
+            return false;
+        }
+
+        long getGameId() {
+            return segment.getLong(base + 4);
+        }
+
+        long getStartedAt() {
+            return segment.getLong(base + 12);
+        }
+
+        GameMode getMode() {
+            GameMode[] modes = GameMode.values();
+            int index = segment.get(base + 20);
+            return index >= 0 && index < modes.length ? modes[index] : GameMode.VS_AI;
+        }
+
+        boolean isWon() {
+            return (segment.get(base + 21) & 1) != 0;
+        }
+
+        int getDurationMillis() {
+            return segment.getInt(base + 24);
+        }
+
+        int getMoveCount() {
+            return segment.getShort(base + 22);
+        }
+
+        /** Ship number at the cell, 0 for water. */
+        int shipAt(boolean enemyBoard, int row, int col) {
+            int packed = segment.get(base + LAYOUT_OFFSET + row * Board.SIZE + col);
+            return enemyBoard ? packed & 0x0f : (packed >> 4) & 0x0f;
+        }
+
+        boolean isMoveOnPlayerBoard(int move) {
+            return (packedMove(move) & 0x8000) == 0;
+        }
+
+        int getMoveRow(int move) {
+            return (packedMove(move) & 0x7f) / Board.SIZE;
+        }
+
+        int getMoveCol(int move) {
+            return (packedMove(move) & 0x7f) % Board.SIZE;
+        }
+
+        ShotOutcome getMoveOutcome(int move) {
+            return ShotOutcome.values()[(packedMove(move) >> 8) & 0x03];
+        }
+
+        private int packedMove(int move) {
+            return segment.getShort(base + MOVES_OFFSET + move * 2) & 0xffff;
+        }
+    }
+}
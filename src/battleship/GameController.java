@@ -1,19 +1,47 @@
 package battleship;
 
 import java.awt.Point;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
 
 class GameController {
+    interface MoveListener {
+        void onMove(int sequence, boolean onPlayerBoard, ShotResult result);
+
+        /** Called after undo or redo replaced the position without a move. */
+        default void onHistoryChanged() {
+        }
+
+        /** Called when an online game ends without a final move, e.g. on GAME_OVER or DISCONNECT. */
+        default void onConcluded() {
+        }
+    }
+
     private final Board playerBoard;
     private final Board aiBoard;
     private final ComputerAI computerAI;
     private final StatisticsManager statisticsManager;
+    private final List<MoveListener> moveListeners = new ArrayList<>();
+    private final Deque<GameSnapshot> redoStack = new ArrayDeque<>();
 
     private boolean playerTurn = true;
     private boolean playerOneTurn = true;
     private boolean gameOver = false;
+    private boolean playerOneWinner;
     private boolean pendingLocalSwitch = false;
     private GameMode mode = GameMode.VS_AI;
+    private int moveCount;
+    private long gameId = ThreadLocalRandom.current().nextLong();
+    private long startedAt = System.currentTimeMillis();
+    private int playerShots;
+    private int playerHits;
+    private String opponent;
+    private boolean replaying;
+    private GameSnapshot history;
 
     GameController(Board playerBoard, Board aiBoard) {
         this(playerBoard, aiBoard, GameMode.VS_AI, true, true, null, null);
@@ -38,6 +66,24 @@ class GameController {
         this.computerAI = existingAi != null ? existingAi : new ComputerAI();
     }
 
+    GameController(GameState state, StatisticsManager statisticsManager) {
+        this(state.getPlayerOneBoard(), state.getPlayerTwoBoard(), state.getMode(), state.isPlayerTurn(),
+                state.isPlayerOneTurn(), state.getComputerAi(), statisticsManager);
+        this.moveCount = state.getMoveCount();
+        this.gameId = state.getGameId();
+        this.startedAt = state.getStartedAt() != 0 ? state.getStartedAt() : startedAt;
+        this.playerShots = state.getPlayerShots();
+        this.playerHits = state.getPlayerHits();
+    }
+
+    void addMoveListener(MoveListener listener) {
+        moveListeners.add(listener);
+    }
+
+    void removeMoveListener(MoveListener listener) {
+        moveListeners.remove(listener);
+    }
+
     void resetGame() {
         playerBoard.reset();
         aiBoard.reset();
@@ -45,6 +91,13 @@ class GameController {
         playerOneTurn = true;
         gameOver = false;
         pendingLocalSwitch = false;
+        moveCount = 0;
+        gameId = ThreadLocalRandom.current().nextLong();
+        startedAt = System.currentTimeMillis();
+        playerShots = 0;
+        playerHits = 0;
+        history = null;
+        redoStack.clear();
         computerAI.reset();
     }
 
@@ -58,39 +111,227 @@ class GameController {
         if (!playerTurn || gameOver) {
             return ShotResult.already(row, col);
         }
+        snapshot();
         ShotResult result = aiBoard.fireAt(row, col);
         handleShotResult(aiBoard, row, col, result);
+        recordMove(false, result);
         return result;
     }
 
     ShotResult aiFire() {
-        if (mode != GameMode.VS_AI || playerTurn || gameOver) {
-            return null;
-        }
         ShotResult result = null;
-        while (!playerTurn && !gameOver) {
-            Point target = computerAI.chooseTarget(playerBoard);
-            result = playerBoard.fireAt(target.x, target.y);
-            computerAI.handleShotResult(target, result);
-            handleShotResult(playerBoard, target.x, target.y, result);
+        while (isAiToMove()) {
+            result = applyAiShot(chooseAiTarget());
         }
         return result;
     }
 
+    boolean isAiToMove() {
+        return mode == GameMode.VS_AI && !playerTurn && !gameOver;
+    }
+
+    /**
+     * Picks the AI's next target. Only the AI's own state changes, so this may run on a worker thread
+     * as long as nothing else touches the game until the target is passed to {@link #applyAiShot}.
+     */
+    Point chooseAiTarget() {
+        return chooseAiTarget(() -> false);
+    }
+
+    /** As {@link #chooseAiTarget()}, but gives up with null, leaving the AI as it was, once cancelled. */
+    Point chooseAiTarget(BooleanSupplier cancelled) {
+        return isAiToMove() ? computerAI.chooseTarget(playerBoard, cancelled) : null;
+    }
+
+    /** Fires one AI shot chosen by {@link #chooseAiTarget}; returns null if the AI is not to move. */
+    ShotResult applyAiShot(Point target) {
+        if (!isAiToMove() || target == null) {
+            return null;
+        }
+        snapshot();
+        ShotResult result = playerBoard.fireAt(target.x, target.y);
+        computerAI.handleShotResult(target, result);
+        handleShotResult(playerBoard, target.x, target.y, result);
+        recordMove(true, result);
+        return result;
+    }
+
     private ShotResult localPlayerFire(int row, int col) {
         if (gameOver || pendingLocalSwitch) {
             return ShotResult.already(row, col);
         }
         Board target = playerOneTurn ? aiBoard : playerBoard;
+        snapshot();
         ShotResult result = target.fireAt(row, col);
         handleShotResult(target, row, col, result);
+        recordMove(target == playerBoard, result);
         return result;
     }
 
+    /** Runs {@code moves} as shots that were already counted, e.g. a match restored from its log. */
+    void replay(Runnable moves) {
+        replaying = true;
+        try {
+            moves.run();
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /** Applies a move that already happened elsewhere; returns null if it is stale or the game is over. */
+    ShotResult replayMove(int sequence, boolean onPlayerBoard, int row, int col) {
+        if (sequence <= moveCount || gameOver) {
+            return null;
+        }
+        Board target = onPlayerBoard ? playerBoard : aiBoard;
+        ShotResult result = target.fireAt(row, col);
+        if (mode == GameMode.VS_AI && onPlayerBoard) {
+            computerAI.handleShotResult(new Point(row, col), result);
+        }
+        replaying = true;
+        try {
+            handleShotResult(target, row, col, result);
+        } finally {
+            replaying = false;
+        }
+        moveCount = sequence;
+        history = null;
+        redoStack.clear();
+        return result;
+    }
+
+    private void recordMove(boolean onPlayerBoard, ShotResult result) {
+        if (result == null || result.getOutcome() == ShotOutcome.ALREADY) {
+            return;
+        }
+        moveCount++;
+        if (history != null) {
+            history = advance(history, onPlayerBoard, result);
+            redoStack.clear();
+        }
+        for (MoveListener listener : new ArrayList<>(moveListeners)) {
+            listener.onMove(moveCount, onPlayerBoard, result);
+        }
+    }
+
+    boolean supportsUndo() {
+        return mode == GameMode.VS_AI || mode == GameMode.LOCAL_PVP;
+    }
+
+    boolean canUndo() {
+        return supportsUndo() && !gameOver && history != null && history.getPrevious() != null;
+    }
+
+    boolean canRedo() {
+        return supportsUndo() && !gameOver && !redoStack.isEmpty();
+    }
+
+    /**
+     * Current position as an immutable snapshot. Taking one costs nothing once the history exists,
+     * so callers can fork a position, try moves and {@link #restore} it afterwards.
+     */
+    GameSnapshot snapshot() {
+        if (history == null && supportsUndo()) {
+            history = new GameSnapshot(null, BoardSnapshot.of(playerBoard), BoardSnapshot.of(aiBoard), playerTurn,
+                    playerOneTurn, pendingLocalSwitch, moveCount, playerShots, playerHits);
+        }
+        return history;
+    }
+
+    /** Steps back to the previous position where a human is to move; against the AI that skips its replies. */
+    boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        do {
+            redoStack.push(history);
+            history = history.getPrevious();
+        } while (mode == GameMode.VS_AI && !history.isPlayerTurn() && history.getPrevious() != null);
+        apply(history);
+        return true;
+    }
+
+    boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        do {
+            history = redoStack.pop();
+        } while (mode == GameMode.VS_AI && !history.isPlayerTurn() && !redoStack.isEmpty());
+        apply(history);
+        return true;
+    }
+
+    /** Jumps to any snapshot taken from this game; the redo history is dropped. */
+    void restore(GameSnapshot snapshot) {
+        if (snapshot == null || !supportsUndo()) {
+            return;
+        }
+        redoStack.clear();
+        history = snapshot;
+        apply(snapshot);
+    }
+
+    private void apply(GameSnapshot snapshot) {
+        snapshot.getPlayerBoard().restore(playerBoard);
+        snapshot.getAiBoard().restore(aiBoard);
+        playerTurn = snapshot.isPlayerTurn();
+        playerOneTurn = snapshot.isPlayerOneTurn();
+        pendingLocalSwitch = snapshot.isPendingLocalSwitch();
+        moveCount = snapshot.getMoveCount();
+        playerShots = snapshot.getPlayerShots();
+        playerHits = snapshot.getPlayerHits();
+        gameOver = false;
+        if (mode == GameMode.VS_AI) {
+            computerAI.rebuild(playerBoard);
+        }
+        for (MoveListener listener : new ArrayList<>(moveListeners)) {
+            listener.onHistoryChanged();
+        }
+    }
+
+    /** Only the shot cell and, for a sunk ship, its surroundings can change in one move. */
+    private GameSnapshot advance(GameSnapshot previous, boolean onPlayerBoard, ShotResult result) {
+        Board board = onPlayerBoard ? playerBoard : aiBoard;
+        BoardSnapshot cells = onPlayerBoard ? previous.getPlayerBoard() : previous.getAiBoard();
+        cells = cells.sync(board, result.getRow(), result.getCol());
+        if (result.getOutcome() == ShotOutcome.SUNK && result.getShip() != null) {
+            for (Cell cell : result.getShip().getCells()) {
+                for (int r = Math.max(0, cell.getRow() - 1); r <= Math.min(Board.SIZE - 1, cell.getRow() + 1); r++) {
+                    for (int c = Math.max(0, cell.getCol() - 1); c <= Math.min(Board.SIZE - 1, cell.getCol() + 1);
+                            c++) {
+                        cells = cells.sync(board, r, c);
+                    }
+                }
+            }
+        }
+        return new GameSnapshot(previous, onPlayerBoard ? cells : previous.getPlayerBoard(),
+                onPlayerBoard ? previous.getAiBoard() : cells, playerTurn, playerOneTurn, pendingLocalSwitch,
+                moveCount, playerShots, playerHits);
+    }
+
+    private void countShot(boolean onPlayerBoard, ShotResult result) {
+        if (onPlayerBoard || result.getOutcome() == ShotOutcome.ALREADY) {
+            return;
+        }
+        playerShots++;
+        if (result.getOutcome() != ShotOutcome.MISS) {
+            playerHits++;
+        }
+    }
+
     private void handleShotResult(Board target, int row, int col, ShotResult result) {
-        if (result == null || result.getOutcome() == ShotOutcome.ALREADY || gameOver) {
+        if (result == null || gameOver) {
             return;
         }
+        if (!replaying) {
+            Metrics.recordShot(result);
+            FlightEvents.shot(result);
+        }
+        if (result.getOutcome() == ShotOutcome.ALREADY) {
+            return;
+        }
+        countShot(target == playerBoard, result);
         if (result.getOutcome() == ShotOutcome.SUNK) {
             Ship sunkShip = result.getShip();
             if (sunkShip != null && target.containsShip(sunkShip)) {
@@ -113,28 +354,27 @@ class GameController {
     private void concludeGame(Board defeatedBoard) {
         gameOver = true;
         pendingLocalSwitch = false;
-        if (statisticsManager == null) {
+        playerOneWinner = defeatedBoard == aiBoard;
+        if (!replaying) {
+            Metrics.GAMES_FINISHED.increment();
+            FootprintMeter.recordEnd(this);
+        }
+        if (statisticsManager == null || replaying) {
             return;
         }
-        if (mode == GameMode.VS_AI) {
-            if (defeatedBoard == aiBoard) {
-                statisticsManager.recordWin(GameMode.VS_AI);
-            } else {
-                statisticsManager.recordLoss(GameMode.VS_AI);
-            }
-        } else if (mode == GameMode.LOCAL_PVP) {
-            if (defeatedBoard == aiBoard) {
-                statisticsManager.recordWin(GameMode.LOCAL_PVP);
-            } else {
-                statisticsManager.recordLoss(GameMode.LOCAL_PVP);
-            }
-        } else if (isOnlineMode()) {
-            if (defeatedBoard == aiBoard) {
-                statisticsManager.recordWin(mode);
-            } else {
-                statisticsManager.recordLoss(mode);
-            }
+        boolean won = playerOneWinner;
+        if (won) {
+            statisticsManager.recordWin(mode);
+        } else {
+            statisticsManager.recordLoss(mode);
         }
+        statisticsManager.recordGame(buildRecord(won));
+    }
+
+    private GameRecord buildRecord(boolean won) {
+        int duration = (int) Math.min(Integer.MAX_VALUE, Math.max(0, System.currentTimeMillis() - startedAt));
+        int aiTier = mode == GameMode.VS_AI ? computerAI.getTier() : 0;
+        return new GameRecord(startedAt, duration, mode, playerShots, playerHits, aiTier, getOpponent(), won);
     }
 
     private void switchCurrentPlayer() {
@@ -151,6 +391,10 @@ class GameController {
         }
         pendingLocalSwitch = false;
         playerOneTurn = !playerOneTurn;
+        if (history != null) {
+            history = new GameSnapshot(history.getPrevious(), history.getPlayerBoard(), history.getAiBoard(),
+                    playerTurn, playerOneTurn, false, moveCount, playerShots, playerHits);
+        }
     }
 
     boolean isLocalSwitchPending() {
@@ -173,6 +417,14 @@ class GameController {
         return gameOver;
     }
 
+    /**
+     * Whether player one (the local player online, the human against the AI) won the finished game.
+     * Online the opponent's fleet is virtual, so this comes from the conclusion, not from the boards.
+     */
+    boolean isPlayerOneWinner() {
+        return playerOneWinner;
+    }
+
     Board getPlayerBoard() {
         return playerBoard;
     }
@@ -185,12 +437,40 @@ class GameController {
         return mode;
     }
 
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    long getGameId() {
+        return gameId;
+    }
+
+    StatisticsManager getStatisticsManager() {
+        return statisticsManager;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    String getOpponent() {
+        if (opponent != null) {
+            return opponent;
+        }
+        return mode == GameMode.VS_AI ? "AI" : mode == GameMode.LOCAL_PVP ? "P2" : "online";
+    }
+
+    void setOpponent(String opponent) {
+        this.opponent = opponent;
+    }
+
     ComputerAI getComputerAI() {
         return computerAI;
     }
 
     GameState createState(Language language) {
-        return new GameState(playerBoard, aiBoard, playerTurn, playerOneTurn, mode, language, computerAI);
+        return new GameState(playerBoard, aiBoard, playerTurn, playerOneTurn, mode, language, computerAI,
+                moveCount, gameId, startedAt, playerShots, playerHits);
     }
 
     boolean isOnlineMode() {
@@ -203,6 +483,7 @@ class GameController {
         }
         ShotResult result = playerBoard.fireAt(row, col);
         handleShotResult(playerBoard, row, col, result);
+        recordMove(true, result);
         return result;
     }
 
@@ -212,6 +493,7 @@ class GameController {
         }
         ShotResult result = aiBoard.applyRemoteResult(row, col, outcome, sunkCells);
         handleShotResult(aiBoard, row, col, result);
+        recordMove(false, result);
         return result;
     }
 
@@ -221,12 +503,19 @@ class GameController {
         }
         gameOver = true;
         pendingLocalSwitch = false;
+        playerOneWinner = localWon;
+        Metrics.GAMES_FINISHED.increment();
+        FootprintMeter.recordEnd(this);
         if (statisticsManager != null && isOnlineMode()) {
             if (localWon) {
                 statisticsManager.recordWin(mode);
             } else {
                 statisticsManager.recordLoss(mode);
             }
+            statisticsManager.recordGame(buildRecord(localWon));
+        }
+        for (MoveListener listener : new ArrayList<>(moveListeners)) {
+            listener.onConcluded();
         }
     }
 }
@@ -4,5 +4,6 @@ enum GameMode {
     VS_AI,
     LOCAL_PVP,
     ONLINE_HOST,
-    ONLINE_CLIENT
+    ONLINE_CLIENT,
+    AI_VS_AI
 }
@@ -0,0 +1,56 @@
+package battleship;
+
+class GameRecord {
+    private final long startedAt;
+    private final int durationMillis;
+    private final GameMode mode;
+    private final int shots;
+    private final int hits;
+    private final int aiTier;
+    private final String opponent;
+    private final boolean won;
+
+    GameRecord(long startedAt, int durationMillis, GameMode mode, int shots, int hits, int aiTier, String opponent,
+            boolean won) {
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.mode = mode;
+        this.shots = shots;
+        this.hits = hits;
+        this.aiTier = aiTier;
+        this.opponent = opponent;
+        this.won = won;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    int getDurationMillis() {
+        return durationMillis;
+    }
+
+    GameMode getMode() {
+        return mode;
+    }
+
+    int getShots() {
+        return shots;
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getAiTier() {
+        return aiTier;
+    }
+
+    String getOpponent() {
+        return opponent;
+    }
+
+    boolean isWon() {
+        return won;
+    }
+}
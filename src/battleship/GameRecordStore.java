@@ -0,0 +1,330 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only, column-per-file store of finished games. Each column is a flat file of fixed-width
+ * values, so a query maps only the columns it needs, window by window, and never materializes
+ * {@link GameRecord} objects. Rows are numbered in append order and rows still being written are
+ * not counted until every column has them. A row torn by a crash or a failed write is cut off
+ * every column when the store is opened, or before the next append, so later rows stay aligned.
+ */
+class GameRecordStore {
+    private static final int WINDOW_ROWS = 1 << 20;
+    private static final int MAX_TRACKED_SHOTS = 1 << 12;
+
+    private enum Column {
+        STARTED_AT("started", 8),
+        DURATION("duration", 4),
+        MODE("mode", 1),
+        SHOTS("shots", 2),
+        HITS("hits", 2),
+        AI_TIER("tier", 1),
+        OPPONENT("opponent", 4),
+        WON("won", 1);
+
+        private final String file;
+        private final int width;
+
+        Column(String file, int width) {
+            this.file = file;
+            this.width = width;
+        }
+    }
+
+    static final class Aggregate {
+        private long games;
+        private long wins;
+        private long shots;
+        private long hits;
+        private long durationMillis;
+
+        private void add(boolean won, int shotCount, int hitCount, int duration) {
+            games++;
+            if (won) {
+                wins++;
+            }
+            shots += shotCount;
+            hits += hitCount;
+            durationMillis += duration;
+        }
+
+        long getGames() {
+            return games;
+        }
+
+        long getWins() {
+            return wins;
+        }
+
+        double getWinRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        double getAccuracy() {
+            return shots == 0 ? 0 : (double) hits / shots;
+        }
+
+        double getAverageDurationMillis() {
+            return games == 0 ? 0 : (double) durationMillis / games;
+        }
+    }
+
+    private interface RowVisitor {
+        void visit(ByteBuffer[] columns, int index);
+    }
+
+    private final Path directory;
+    private final Path dictionaryFile;
+    private Map<String, Integer> opponentIds;
+    private List<String> opponents;
+    private boolean opened;
+    private volatile boolean torn;
+
+    GameRecordStore(Path directory) {
+        this.directory = directory;
+        this.dictionaryFile = directory.resolve("opponents.dict");
+    }
+
+    synchronized void append(GameRecord record) {
+        open();
+        int opponentId = opponentId(record.getOpponent());
+        write(Column.STARTED_AT, ByteBuffer.allocate(8).putLong(record.getStartedAt()).array());
+        write(Column.DURATION, ByteBuffer.allocate(4).putInt(record.getDurationMillis()).array());
+        write(Column.MODE, new byte[] {(byte) record.getMode().ordinal()});
+        write(Column.SHOTS, ByteBuffer.allocate(2).putShort((short) record.getShots()).array());
+        write(Column.HITS, ByteBuffer.allocate(2).putShort((short) record.getHits()).array());
+        write(Column.AI_TIER, new byte[] {(byte) record.getAiTier()});
+        write(Column.OPPONENT, ByteBuffer.allocate(4).putInt(opponentId).array());
+        write(Column.WON, new byte[] {(byte) (record.isWon() ? 1 : 0)});
+    }
+
+    synchronized long size() {
+        open();
+        return committedRows();
+    }
+
+    private void write(Column column, byte[] value) {
+        PersistenceExecutor.get().append(path(column), value).whenComplete((ignored, error) -> {
+            if (error != null) {
+                torn = true;
+            }
+        });
+    }
+
+    /** Cuts every column back to the rows all of them have; after a failed write, waits for the queue first. */
+    private void open() {
+        if (opened && !torn) {
+            return;
+        }
+        if (torn) {
+            PersistenceExecutor.get().flush();
+            torn = false;
+        }
+        opened = true;
+        long rows = committedRows();
+        for (Column column : Column.values()) {
+            Path file = path(column);
+            try {
+                if (Files.exists(file) && Files.size(file) > rows * column.width) {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        channel.truncate(rows * column.width);
+                        channel.force(true);
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private long committedRows() {
+        long rows = Long.MAX_VALUE;
+        for (Column column : Column.values()) {
+            try {
+                Path file = path(column);
+                rows = Math.min(rows, Files.exists(file) ? Files.size(file) / column.width : 0);
+            } catch (IOException ex) {
+                return 0;
+            }
+        }
+        return rows;
+    }
+
+    Map<GameMode, Aggregate> aggregateByMode() {
+        Map<GameMode, Aggregate> result = new EnumMap<>(GameMode.class);
+        GameMode[] modes = GameMode.values();
+        scan(0, size(), new Column[] {Column.MODE, Column.WON, Column.SHOTS, Column.HITS, Column.DURATION},
+                (c, i) -> addRow(result.computeIfAbsent(modes[c[0].get(i)], m -> new Aggregate()), c, i));
+        return result;
+    }
+
+    Map<Integer, Aggregate> aggregateByAiTier() {
+        Map<Integer, Aggregate> result = new TreeMap<>();
+        scan(0, size(), new Column[] {Column.AI_TIER, Column.WON, Column.SHOTS, Column.HITS, Column.DURATION},
+                (c, i) -> addRow(result.computeIfAbsent((int) c[0].get(i), t -> new Aggregate()), c, i));
+        return result;
+    }
+
+    Map<String, Aggregate> aggregateByOpponent() {
+        Map<Integer, Aggregate> byId = new HashMap<>();
+        scan(0, size(), new Column[] {Column.OPPONENT, Column.WON, Column.SHOTS, Column.HITS, Column.DURATION},
+                (c, i) -> addRow(byId.computeIfAbsent(c[0].getInt(i * 4), t -> new Aggregate()), c, i));
+        Map<String, Aggregate> result = new TreeMap<>();
+        synchronized (this) {
+            loadDictionary();
+            byId.forEach((id, aggregate) -> result.put(id < opponents.size() ? opponents.get(id) : "?", aggregate));
+        }
+        return result;
+    }
+
+    /** Aggregates the most recent {@code games} rows, optionally restricted to one mode. */
+    Aggregate lastGames(int games, GameMode mode) {
+        long end = size();
+        return aggregate(Math.max(0, end - games), end, mode);
+    }
+
+    /**
+     * Aggregates games started at or after {@code epochMillis}. Rows are appended when a game ends
+     * and loaded saves keep their original start, so the column is not sorted and is scanned whole.
+     */
+    Aggregate since(long epochMillis, GameMode mode) {
+        Aggregate result = new Aggregate();
+        int wanted = mode == null ? -1 : mode.ordinal();
+        scan(0, size(), new Column[] {Column.MODE, Column.WON, Column.SHOTS, Column.HITS, Column.DURATION,
+                Column.STARTED_AT}, (c, i) -> {
+                    if (c[5].getLong(i * 8) >= epochMillis && (wanted < 0 || c[0].get(i) == wanted)) {
+                        addRow(result, c, i);
+                    }
+                });
+        return result;
+    }
+
+    /** Median number of shots the local player needed in won games, or -1 when there are none. */
+    double medianShotsToWin(GameMode mode) {
+        long[] histogram = new long[MAX_TRACKED_SHOTS];
+        long[] total = new long[1];
+        int wanted = mode == null ? -1 : mode.ordinal();
+        scan(0, size(), new Column[] {Column.MODE, Column.WON, Column.SHOTS}, (c, i) -> {
+            if (c[1].get(i) != 0 && (wanted < 0 || c[0].get(i) == wanted)) {
+                histogram[Math.min(c[2].getShort(i * 2) & 0xffff, MAX_TRACKED_SHOTS - 1)]++;
+                total[0]++;
+            }
+        });
+        if (total[0] == 0) {
+            return -1;
+        }
+        return (valueAtRank(histogram, (total[0] - 1) / 2) + valueAtRank(histogram, total[0] / 2)) / 2.0;
+    }
+
+    private Aggregate aggregate(long from, long to, GameMode mode) {
+        Aggregate result = new Aggregate();
+        int wanted = mode == null ? -1 : mode.ordinal();
+        scan(from, to, new Column[] {Column.MODE, Column.WON, Column.SHOTS, Column.HITS, Column.DURATION},
+                (c, i) -> {
+                    if (wanted < 0 || c[0].get(i) == wanted) {
+                        addRow(result, c, i);
+                    }
+                });
+        return result;
+    }
+
+    /** Adds a row scanned as {key, WON, SHOTS, HITS, DURATION}. */
+    private static void addRow(Aggregate aggregate, ByteBuffer[] c, int i) {
+        aggregate.add(c[1].get(i) != 0, c[2].getShort(i * 2) & 0xffff, c[3].getShort(i * 2) & 0xffff,
+                c[4].getInt(i * 4));
+    }
+
+    private void scan(long from, long to, Column[] columns, RowVisitor visitor) {
+        if (from >= to) {
+            return;
+        }
+        FileChannel[] channels = new FileChannel[columns.length];
+        try {
+            for (int k = 0; k < columns.length; k++) {
+                channels[k] = FileChannel.open(path(columns[k]), StandardOpenOption.READ);
+            }
+            ByteBuffer[] buffers = new ByteBuffer[columns.length];
+            for (long start = from; start < to; start += WINDOW_ROWS) {
+                int rows = (int) Math.min(WINDOW_ROWS, to - start);
+                for (int k = 0; k < columns.length; k++) {
+                    int width = columns[k].width;
+                    MappedByteBuffer window = channels[k].map(FileChannel.MapMode.READ_ONLY, start * width,
+                            (long) rows * width);
+                    buffers[k] = window;
+                }
+                for (int i = 0; i < rows; i++) {
+                    visitor.visit(buffers, i);
+                }
+            }
+        } catch (IOException ignored) {
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private int opponentId(String opponent) {
+        loadDictionary();
+        String key = opponent == null ? "" : opponent.replace('\n', ' ');
+        Integer id = opponentIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        id = opponents.size();
+        opponents.add(key);
+        opponentIds.put(key, id);
+        PersistenceExecutor.get().append(dictionaryFile, (key + "\n").getBytes(StandardCharsets.UTF_8));
+        return id;
+    }
+
+    private void loadDictionary() {
+        if (opponents != null) {
+            return;
+        }
+        opponents = new ArrayList<>();
+        opponentIds = new HashMap<>();
+        if (Files.exists(dictionaryFile)) {
+            try {
+                for (String line : Files.readAllLines(dictionaryFile, StandardCharsets.UTF_8)) {
+                    opponentIds.putIfAbsent(line, opponents.size());
+                    opponents.add(line);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static int valueAtRank(long[] histogram, long rank) {
+        long seen = 0;
+        for (int value = 0; value < histogram.length; value++) {
+            seen += histogram[value];
+            if (seen > rank) {
+                return value;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    private Path path(Column column) {
+        return directory.resolve(column.file + ".col");
+    }
+}
@@ -0,0 +1,67 @@
+package battleship;
+
+/**
+ * One entry of the undo history: both boards and the turn state after a move. Snapshots are
+ * immutable and link to the position before them, so taking one is free and the history is a
+ * persistent stack; consecutive snapshots share all board leaves the move did not touch.
+ */
+final class GameSnapshot {
+    private final GameSnapshot previous;
+    private final BoardSnapshot playerBoard;
+    private final BoardSnapshot aiBoard;
+    private final boolean playerTurn;
+    private final boolean playerOneTurn;
+    private final boolean pendingLocalSwitch;
+    private final int moveCount;
+    private final int playerShots;
+    private final int playerHits;
+
+    GameSnapshot(GameSnapshot previous, BoardSnapshot playerBoard, BoardSnapshot aiBoard, boolean playerTurn,
+            boolean playerOneTurn, boolean pendingLocalSwitch, int moveCount, int playerShots, int playerHits) {
+        this.previous = previous;
+        this.playerBoard = playerBoard;
+        this.aiBoard = aiBoard;
+        this.playerTurn = playerTurn;
+        this.playerOneTurn = playerOneTurn;
+        this.pendingLocalSwitch = pendingLocalSwitch;
+        this.moveCount = moveCount;
+        this.playerShots = playerShots;
+        this.playerHits = playerHits;
+    }
+
+    GameSnapshot getPrevious() {
+        return previous;
+    }
+
+    BoardSnapshot getPlayerBoard() {
+        return playerBoard;
+    }
+
+    BoardSnapshot getAiBoard() {
+        return aiBoard;
+    }
+
+    boolean isPlayerTurn() {
+        return playerTurn;
+    }
+
+    boolean isPlayerOneTurn() {
+        return playerOneTurn;
+    }
+
+    boolean isPendingLocalSwitch() {
+        return pendingLocalSwitch;
+    }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    int getPlayerShots() {
+        return playerShots;
+    }
+
+    int getPlayerHits() {
+        return playerHits;
+    }
+}
@@ -12,9 +12,14 @@ class GameState implements Serializable {
     private final GameMode mode;
     private final Language language;
     private final ComputerAI computerAI;
+    private final int moveCount;
+    private final long gameId;
+    private final long startedAt;
+    private final int playerShots;
+    private final int playerHits;
 
     GameState(Board p1, Board p2, boolean playerTurn, boolean playerOneTurn, GameMode mode, Language language,
-            ComputerAI computerAI) {
+            ComputerAI computerAI, int moveCount, long gameId, long startedAt, int playerShots, int playerHits) {
         this.playerOneBoard = p1;
         this.playerTwoBoard = p2;
         this.playerTurn = playerTurn;
@@ -22,6 +27,11 @@ class GameState implements Serializable {
         this.mode = mode;
         this.language = language;
         this.computerAI = computerAI;
+        this.moveCount = moveCount;
+        this.gameId = gameId;
+        this.startedAt = startedAt;
+        this.playerShots = playerShots;
+        this.playerHits = playerHits;
     }
 
     Board getPlayerOneBoard() {
@@ -51,4 +61,24 @@ class GameState implements Serializable {
     ComputerAI getComputerAi() {
         return computerAI;
     }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    long getGameId() {
+        return gameId;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    int getPlayerShots() {
+        return playerShots;
+    }
+
+    int getPlayerHits() {
+        return playerHits;
+    }
 }
@@ -0,0 +1,200 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Background heatmap of where the opponent's remaining ships can be. The EDT captures what the
+ * shooter sees (a hundred bytes) and hands it to a worker; a newer capture cancels the running
+ * computation. Finished maps are immutable and published back to the EDT, so painting never waits.
+ * Maps are cached by position hash, so undo, redo and repeated positions cost nothing.
+ */
+final class HintEngine {
+    private static final TranspositionCache<Heatmap> CACHE = new TranspositionCache<>(1 << 10);
+
+    /** Probability that each cell holds a ship, for one observed position. Immutable. */
+    static final class Heatmap {
+        private final long positionHash;
+        private final int size;
+        private final float[] probabilities;
+        private final float max;
+
+        private Heatmap(long positionHash, int size, float[] probabilities) {
+            this.positionHash = positionHash;
+            this.size = size;
+            this.probabilities = probabilities;
+            float highest = 0f;
+            for (float p : probabilities) {
+                highest = Math.max(highest, p);
+            }
+            this.max = highest;
+        }
+
+        long getPositionHash() {
+            return positionHash;
+        }
+
+        /** Side length of the board the map was computed for. */
+        int getSize() {
+            return size;
+        }
+
+        float probability(int row, int col) {
+            return probabilities[row * size + col];
+        }
+
+        float getMax() {
+            return max;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "hint-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private final Consumer<Heatmap> listener;
+    private Future<?> pending;
+    private long requestedHash;
+    private boolean requested;
+
+    /** {@code listener} receives each finished map on the EDT. */
+    HintEngine(Consumer<Heatmap> listener) {
+        this.listener = listener;
+    }
+
+    /** Requests a map for the current position of {@code board}; EDT only. */
+    void update(Board board) {
+        long hash = board.positionHash();
+        if (requested && hash == requestedHash) {
+            return;
+        }
+        requested = true;
+        requestedHash = hash;
+        Heatmap cached = CACHE.get(hash);
+        if (cached != null) {
+            cancelPending();
+            listener.accept(cached);
+            return;
+        }
+        int[] states = observe(board);
+        int[] remaining = remainingShips(board);
+        cancelPending();
+        long ticket = generation.get();
+        pending = executor.submit(() -> {
+            float[] probabilities = shipProbabilities(states, remaining, ticket);
+            if (probabilities == null) {
+                return;
+            }
+            Heatmap map = new Heatmap(hash, Board.SIZE, probabilities);
+            CACHE.put(hash, map);
+            SwingUtilities.invokeLater(() -> {
+                if (generation.get() == ticket) {
+                    listener.accept(map);
+                }
+            });
+        });
+    }
+
+    /** Drops the running computation and forgets the last request. */
+    void cancel() {
+        requested = false;
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    private static int[] observe(Board board) {
+        int[] states = new int[Board.SIZE * Board.SIZE];
+        Cell[][] cells = board.getCells();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                states[r * Board.SIZE + c] = Zobrist.state(cells[r][c]);
+            }
+        }
+        return states;
+    }
+
+    private static int[] remainingShips(Board board) {
+        List<Integer> remaining = new ArrayList<>();
+        for (int length : board.getFleetTemplate()) {
+            remaining.add(length);
+        }
+        for (Ship ship : board.getShips()) {
+            if (ship.isSunk()) {
+                remaining.remove(Integer.valueOf(ship.size()));
+            }
+        }
+        return remaining.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * For each ship still afloat, the weighted share of its legal placements covering a cell, with
+     * placements through known hits weighted up; ships are combined as if independent. Returns
+     * null once a newer request supersedes {@code ticket}.
+     */
+    private float[] shipProbabilities(int[] states, int[] remaining, long ticket) {
+        int cells = states.length;
+        double[] miss = new double[cells];
+        Arrays.fill(miss, 1.0);
+        double[] cover = new double[cells];
+        for (int length : remaining) {
+            if (generation.get() != ticket || Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            Arrays.fill(cover, 0.0);
+            double total = 0;
+            for (int orientation = 0; orientation < (length == 1 ? 1 : 2); orientation++) {
+                int dr = orientation == 0 ? 0 : 1;
+                int dc = orientation == 0 ? 1 : 0;
+                for (int r = 0; r + dr * (length - 1) < Board.SIZE; r++) {
+                    for (int c = 0; c + dc * (length - 1) < Board.SIZE; c++) {
+                        total += addPlacement(states, cover, r, c, dr, dc, length);
+                    }
+                }
+            }
+            if (total > 0) {
+                for (int i = 0; i < cells; i++) {
+                    miss[i] *= 1.0 - cover[i] / total;
+                }
+            }
+        }
+        float[] probabilities = new float[cells];
+        for (int i = 0; i < cells; i++) {
+            probabilities[i] = states[i] == Zobrist.FOG ? (float) (1.0 - miss[i]) : 0f;
+        }
+        return probabilities;
+    }
+
+    private static int addPlacement(int[] states, double[] cover, int row, int col, int dr, int dc, int length) {
+        int hits = 0;
+        for (int i = 0; i < length; i++) {
+            int state = states[(row + dr * i) * Board.SIZE + col + dc * i];
+            if (state == Zobrist.MISS || state == Zobrist.SUNK) {
+                return 0;
+            }
+            if (state == Zobrist.HIT) {
+                hits++;
+            }
+        }
+        int weight = 1 + ComputerAI.HIT_WEIGHT * hits;
+        for (int i = 0; i < length; i++) {
+            cover[(row + dr * i) * Board.SIZE + col + dc * i] += weight;
+        }
+        return weight;
+    }
+}
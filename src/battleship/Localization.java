@@ -16,10 +16,23 @@ class Localization {
         UA.put("menu.join", "Підключитися до онлайн-гри");
         UA.put("menu.language", "Змінити мову");
         UA.put("menu.resetStats", "Скинути статистику");
+        UA.put("menu.replays", "Перегляд записаних ігор");
         UA.put("menu.exit", "Вихід");
+        UA.put("menu.spectate", "Дивитися гру ШІ проти ШІ");
         UA.put("menu.fullscreen", "Повноекранний режим");
         UA.put("game.newGame", "Нова гра");
         UA.put("game.backToMenu", "Повернутися до меню");
+        UA.put("game.undo", "Скасувати хід");
+        UA.put("game.redo", "Повторити хід");
+        UA.put("game.turbo", "Турбо");
+        UA.put("game.hints", "Підказки");
+        UA.put("game.speed", "Швидкість");
+        UA.put("trace.saved", "Журнал мережевого матчу записано у файл:");
+        UA.put("trace.none", "Немає активного мережевого матчу");
+        UA.put("status.spectate", "%s проти %s, хід %d");
+        UA.put("status.spectateWinner", "Переміг %s після %d ходів");
+        UA.put("ai.hunter", "Мисливець");
+        UA.put("ai.density", "Щільність");
         UA.put("status.yourTurn", "Ваш хід");
         UA.put("status.wait", "Зачекайте на свій хід");
         UA.put("status.win", "Ви перемогли! Натисніть 'Нова гра'");
@@ -34,6 +47,11 @@ class Localization {
         UA.put("dialog.resetStatsConfirm", "Ви впевнені, що хочете скинути статистику?");
         UA.put("dialog.resetStatsDone", "Статистику скинуто.");
         UA.put("dialog.languageTitle", "Оберіть мову");
+        UA.put("replay.move", "Хід");
+        UA.put("replay.none", "Немає записаних ігор");
+        UA.put("replay.choose", "Оберіть запис гри");
+        UA.put("replay.play", "Відтворити");
+        UA.put("replay.pause", "Пауза");
 
         EN.put("window.title", "Battleship (Java)");
         EN.put("menu.newVsAi", "New game vs Computer");
@@ -43,10 +61,23 @@ class Localization {
         EN.put("menu.join", "Join online game");
         EN.put("menu.language", "Change language");
         EN.put("menu.resetStats", "Reset statistics");
+        EN.put("menu.replays", "Watch recorded games");
         EN.put("menu.exit", "Exit");
+        EN.put("menu.spectate", "Watch AI vs AI");
         EN.put("menu.fullscreen", "Fullscreen mode");
         EN.put("game.newGame", "New game");
         EN.put("game.backToMenu", "Back to menu");
+        EN.put("game.undo", "Undo");
+        EN.put("game.redo", "Redo");
+        EN.put("game.turbo", "Turbo");
+        EN.put("game.hints", "Hints");
+        EN.put("game.speed", "Speed");
+        EN.put("trace.saved", "The online match trace was written to:");
+        EN.put("trace.none", "There is no active online match");
+        EN.put("status.spectate", "%s vs %s, move %d");
+        EN.put("status.spectateWinner", "%s wins after %d moves");
+        EN.put("ai.hunter", "Hunter");
+        EN.put("ai.density", "Density");
         EN.put("status.yourTurn", "Your turn");
         EN.put("status.wait", "Please wait for your turn");
         EN.put("status.win", "You win! Click 'New game'");
@@ -61,6 +92,11 @@ class Localization {
         EN.put("dialog.resetStatsConfirm", "Are you sure you want to reset statistics?");
         EN.put("dialog.resetStatsDone", "Statistics reset.");
         EN.put("dialog.languageTitle", "Choose language");
+        EN.put("replay.move", "Move");
+        EN.put("replay.none", "No recorded games");
+        EN.put("replay.choose", "Choose a recorded game");
+        EN.put("replay.play", "Play");
+        EN.put("replay.pause", "Pause");
     }
 
     static String t(String key, Language language) {
@@ -0,0 +1,189 @@
+package battleship;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs many {@link GameController}s off the EDT, actor style. Each match has a bounded mailbox of
+ * commands; a match with mail is queued for the worker pool, at most once, so only one worker
+ * touches a controller at a time and its commands run in the order they were sent, without locks.
+ * A worker runs at most {@link #BATCH} commands before the match goes to the back of the queue,
+ * so busy matches cannot starve the others. A full mailbox rejects the command instead of growing.
+ *
+ * <p>Matches run in parallel, so anything they share must be thread-safe. {@link StatisticsManager}
+ * is not: {@code recordWin} and {@code recordGame} are unsynchronized, so give scheduled controllers
+ * none or one each.
+ */
+final class MatchScheduler {
+    static final int BATCH = 8;
+    static final int DEFAULT_MAILBOX = 64;
+
+    /** One mailbox entry: runs against the controller, or fails its future if it never gets to run. */
+    private static final class Command<T> {
+        private final Function<GameController, T> action;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Command(Function<GameController, T> action) {
+            this.action = action;
+        }
+
+        void run(GameController controller) {
+            try {
+                result.complete(action.apply(controller));
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+                if (ex instanceof Error) {
+                    throw (Error) ex;
+                }
+            }
+        }
+
+        void reject(String reason) {
+            result.completeExceptionally(new RejectedExecutionException(reason));
+        }
+    }
+
+    /** Handle to one scheduled match; commands complete on a worker thread. */
+    final class Match {
+        private final GameController controller;
+        private final Queue<Command<?>> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Match(GameController controller) {
+            this.controller = controller;
+        }
+
+        CompletableFuture<ShotResult> fire(int row, int col) {
+            return submit(game -> game.playerFire(row, col));
+        }
+
+        /** Plays the AI until it is the player's turn again; completes with the last AI shot or null. */
+        CompletableFuture<ShotResult> aiTurn() {
+            return submit(GameController::aiFire);
+        }
+
+        /** Snapshots the match in order with the other commands; the write itself runs in the background. */
+        CompletableFuture<Void> save(String name, Language language) {
+            return submit(game -> game.createState(language)).thenCompose(state -> SaveManager.save(state, name));
+        }
+
+        /** Runs {@code command} against the controller on a worker, after everything sent before it. */
+        <T> CompletableFuture<T> submit(Function<GameController, T> action) {
+            Command<T> command = new Command<>(action);
+            if (closed) {
+                command.reject("Матч закрито");
+                return command.result;
+            }
+            if (queued.incrementAndGet() > mailboxCapacity) {
+                queued.decrementAndGet();
+                Metrics.SCHEDULER_REJECTED.increment();
+                command.reject("Черга команд матчу переповнена");
+                return command.result;
+            }
+            mailbox.add(command);
+            if (closed && mailbox.remove(command)) {
+                // Lost a race with close(); a worker that already took the command runs it instead.
+                queued.decrementAndGet();
+                command.reject("Матч закрито");
+                return command.result;
+            }
+            schedule();
+            return command.result;
+        }
+
+        /** Rejects further commands; those already in the mailbox still run. */
+        void close() {
+            if (!closed) {
+                closed = true;
+                Metrics.SCHEDULED_MATCHES.decrement();
+            }
+        }
+
+        GameController getController() {
+            return controller;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    scheduled.set(false);
+                    rejectAll("Планувальник матчів зупинено");
+                }
+            }
+        }
+
+        /** Fails everything still in the mailbox, once no worker will ever drain it. */
+        private void rejectAll(String reason) {
+            Command<?> command;
+            while ((command = mailbox.poll()) != null) {
+                queued.decrementAndGet();
+                command.reject(reason);
+            }
+        }
+
+        /** A command that throws still releases the match, so its mailbox keeps draining. */
+        private void drain() {
+            try {
+                for (int i = 0; i < BATCH; i++) {
+                    Command<?> command = mailbox.poll();
+                    if (command == null) {
+                        break;
+                    }
+                    queued.decrementAndGet();
+                    command.run(controller);
+                    Metrics.SCHEDULER_COMMANDS.increment();
+                }
+            } finally {
+                scheduled.set(false);
+                if (!mailbox.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private final ExecutorService workers;
+    private final int mailboxCapacity;
+
+    MatchScheduler(int workerCount) {
+        this(workerCount, DEFAULT_MAILBOX);
+    }
+
+    MatchScheduler(int workerCount, int mailboxCapacity) {
+        if (workerCount < 1 || mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Кількість потоків і розмір черги мають бути додатними");
+        }
+        this.mailboxCapacity = mailboxCapacity;
+        AtomicInteger index = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, task -> {
+            Thread thread = new Thread(task, "match-worker-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Hands {@code controller} to the scheduler; from now on touch it only through the returned handle. */
+    Match open(GameController controller) {
+        Metrics.SCHEDULED_MATCHES.increment();
+        if (controller.getMoveCount() == 0) {
+            FootprintMeter.recordStart(controller);
+        }
+        return new Match(controller);
+    }
+
+    /** Stops the workers after the drains already queued; later commands fail instead of waiting. */
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,176 @@
+package battleship;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Flight recorder for one online match: the last {@link #CAPACITY} messages, state changes and
+ * controller decisions as fixed-size binary records in a preallocated ring. Any thread may record;
+ * a writer claims a slot with one atomic increment and publishes it with a stamp, so recording
+ * never locks or allocates. Readers skip slots that are being overwritten. Decoded only on dump.
+ */
+final class MatchTrace {
+    static final int CAPACITY = 1024;
+
+    static final int IN = 1;
+    static final int OUT = 2;
+    static final int STATE = 3;
+    static final int DECISION = 4;
+    static final int ERROR = 5;
+
+    static final int LOCAL_READY = 1;
+    static final int REMOTE_READY = 2;
+    static final int SHOT_PENDING = 3;
+    static final int SHOT_RESOLVED = 4;
+    static final int TURN = 5;
+    static final int RESUMED = 6;
+    static final int FINISHED = 7;
+    static final int CLOSED = 8;
+
+    static final int APPLY_INCOMING = 1;
+    static final int APPLY_RESULT = 2;
+    static final int CONCLUDE = 3;
+    static final int SHOT_REFUSED = 4;
+
+    static final int RESULT_WITHOUT_SHOT = 1;
+    static final int MALFORMED = 2;
+    static final int NETWORK = 3;
+    static final int LOG_FAILED = 4;
+
+    private static final int WORDS = 3;
+    private static final String[] KINDS = {"?", "IN", "OUT", "STATE", "DECIDE", "ERROR"};
+    private static final String[] MESSAGES = {"?", "MATCH", "RESUME_OK", "RESUME_NO", "RESUME", "READY", "SHOT",
+            "RESULT", "GAME_OVER", "DISCONNECT"};
+    private static final String[] STATES = {"?", "localReady", "remoteReady", "shotPending", "shotResolved",
+            "turn", "resumed", "finished", "closed"};
+    private static final String[] DECISIONS = {"?", "applyIncoming", "applyResult", "conclude", "shotRefused"};
+    private static final String[] ERRORS = {"?", "resultWithoutShot", "malformed", "network", "logFailed"};
+    private static final int SHOT_CODE = 6;
+    private static final int RESULT_CODE = 7;
+
+    private final AtomicLongArray slots = new AtomicLongArray(CAPACITY * WORDS);
+    private final AtomicLong next = new AtomicLong();
+    private final long createdAt = System.nanoTime();
+
+    /** One record; {@code a} and {@code b} are kind-specific and keep 24 bits each. */
+    void record(int kind, int code, int a, int b) {
+        long sequence = next.getAndIncrement();
+        int base = (int) (sequence & (CAPACITY - 1)) * WORDS;
+        slots.lazySet(base + 2, 0);
+        slots.lazySet(base, System.nanoTime() - createdAt);
+        slots.lazySet(base + 1, (long) kind << 56 | (long) (code & 0xff) << 48 | (a & 0xffffffL) << 24
+                | (b & 0xffffffL));
+        slots.lazySet(base + 2, sequence + 1);
+    }
+
+    /** A protocol line; shot coordinates and result outcomes are kept, other payloads are not. */
+    void message(boolean outbound, String text) {
+        int code = messageCode(text);
+        int a = -1;
+        int b = -1;
+        if (code == SHOT_CODE) {
+            int space = text.indexOf(' ');
+            a = parseInt(text, space + 1);
+            b = parseInt(text, text.indexOf(' ', space + 1) + 1);
+        } else if (code == RESULT_CODE) {
+            a = outcomeCode(text);
+        }
+        record(outbound ? OUT : IN, code, a, b);
+    }
+
+    void state(int code, boolean value) {
+        record(STATE, code, value ? 1 : 0, -1);
+    }
+
+    /** Readable form of the ring, oldest record first. */
+    String dump(String reason) {
+        long end = next.get();
+        StringBuilder builder = new StringBuilder();
+        builder.append("# match trace, reason: ").append(reason).append(", ").append(end).append(" records")
+                .append(System.lineSeparator());
+        for (long sequence = Math.max(0, end - CAPACITY); sequence < end; sequence++) {
+            int base = (int) (sequence & (CAPACITY - 1)) * WORDS;
+            long stamp = slots.get(base + 2);
+            long time = slots.get(base);
+            long packed = slots.get(base + 1);
+            if (stamp != sequence + 1 || slots.get(base + 2) != stamp) {
+                continue;
+            }
+            int kind = (int) (packed >>> 56);
+            int code = (int) (packed >>> 48) & 0xff;
+            int a = (int) (packed << 16 >> 40);
+            int b = (int) (packed << 40 >> 40);
+            builder.append(String.format("%6d %10.3f ms  %-6s %s", sequence, time / 1e6, name(KINDS, kind),
+                    describe(kind, code, a, b))).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+    /** Writes the dump next to the saves in the background and returns the file it goes to. */
+    Path dumpToFile(long matchId, String reason) {
+        Path path = SaveManager.saveDirectory().resolve(
+                "trace-" + Long.toHexString(matchId) + "-" + System.currentTimeMillis() + ".log");
+        PersistenceExecutor.get().write(path, dump(reason).getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private static String describe(int kind, int code, int a, int b) {
+        switch (kind) {
+            case IN:
+            case OUT:
+                if (code == SHOT_CODE) {
+                    return "SHOT " + a + " " + b;
+                }
+                if (code == RESULT_CODE) {
+                    return "RESULT " + (a >= 0 ? ShotOutcome.values()[a].name() : "?");
+                }
+                return name(MESSAGES, code);
+            case STATE:
+                return name(STATES, code) + " = " + (a == 1);
+            case DECISION:
+                return name(DECISIONS, code) + " " + a + " " + b;
+            case ERROR:
+                return name(ERRORS, code) + " " + a + " " + b;
+            default:
+                return code + " " + a + " " + b;
+        }
+    }
+
+    private static String name(String[] names, int code) {
+        return code >= 0 && code < names.length ? names[code] : String.valueOf(code);
+    }
+
+    private static int messageCode(String text) {
+        for (int i = 1; i < MESSAGES.length; i++) {
+            if (text.startsWith(MESSAGES[i])) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static int outcomeCode(String text) {
+        for (ShotOutcome outcome : ShotOutcome.values()) {
+            if (text.startsWith(outcome.name(), 7)) {
+                return outcome.ordinal();
+            }
+        }
+        return -1;
+    }
+
+    /** Digits at {@code from}, or -1; parses in place so recording a message allocates nothing. */
+    private static int parseInt(String text, int from) {
+        if (from <= 0 || from >= text.length()) {
+            return -1;
+        }
+        int value = 0;
+        int i = from;
+        while (i < text.length() && i - from < 7 && Character.isDigit(text.charAt(i))) {
+            value = value * 10 + (text.charAt(i) - '0');
+            i++;
+        }
+        return i == from ? -1 : value;
+    }
+}
@@ -0,0 +1,375 @@
+package battleship;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of online matches. Every record is {@code length, crc32, type, match id, payload}
+ * and is durable once its future completes. A single writer thread drains everything queued since
+ * the previous fsync into one write and one {@code force}, so concurrent matches share the cost of
+ * a sync (group commit). Matches that have a BEGIN record but no END survive a restart and are
+ * offered through {@link #inFlight()}; the log is truncated whenever no match is live. A failed
+ * write is cut back to the last synced record so later records are not stranded behind it.
+ *
+ * <p>{@link #main} measures throughput with and without group commit:
+ * {@code java battleship.MatchWal [matches] [shotsPerMatch]}.
+ */
+class MatchWal {
+    static final String DIRECTORY = "wal";
+
+    private static final byte BEGIN = 1;
+    private static final byte SHOT = 2;
+    private static final byte END = 3;
+    private static final int RECORD_HEADER = 4 + 4;
+
+    private final Path file;
+    private final boolean groupCommit;
+    private final FileChannel channel;
+    private final List<Pending> queue = new ArrayList<>();
+    private final Set<Long> live = new HashSet<>();
+    private final Map<Long, RecoveredMatch> recovered = new LinkedHashMap<>();
+    private long syncCount;
+    private long committed;
+
+    private static final class Holder {
+        private static final MatchWal INSTANCE = openShared();
+    }
+
+    private static final class Pending {
+        private final ByteBuffer record;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Pending(ByteBuffer record) {
+            this.record = record;
+        }
+    }
+
+    /** Match state rebuilt from the log: the local fleet and every shot applied so far. */
+    static final class RecoveredMatch {
+        private final long matchId;
+        private final GameMode mode;
+        private final boolean playerStarts;
+        private final byte[] layout;
+        private final List<byte[]> shots = new ArrayList<>();
+
+        private RecoveredMatch(long matchId, GameMode mode, boolean playerStarts, byte[] layout) {
+            this.matchId = matchId;
+            this.mode = mode;
+            this.playerStarts = playerStarts;
+            this.layout = layout;
+        }
+
+        long getMatchId() {
+            return matchId;
+        }
+
+        GameMode getMode() {
+            return mode;
+        }
+
+        int getMoveCount() {
+            return shots.size();
+        }
+
+        /** Builds a controller in the state the match had when its last record was committed. */
+        GameController restore(StatisticsManager statisticsManager) {
+            Board playerBoard = new Board(false);
+            placeFromLayout(playerBoard, layout);
+            Board opponentBoard = new Board(false);
+            opponentBoard.setVirtualFleet(true);
+            GameController controller = new GameController(playerBoard, opponentBoard, mode, playerStarts, true,
+                    null, statisticsManager);
+            controller.replay(() -> {
+                for (byte[] shot : shots) {
+                    ByteBuffer in = ByteBuffer.wrap(shot);
+                    boolean onPlayerBoard = in.get() != 0;
+                    int row = in.get();
+                    int col = in.get();
+                    ShotOutcome outcome = ShotOutcome.values()[in.get()];
+                    if (onPlayerBoard) {
+                        controller.applyIncomingOnlineShot(row, col);
+                    } else {
+                        List<Point> sunk = new ArrayList<>();
+                        int count = in.get();
+                        for (int i = 0; i < count; i++) {
+                            sunk.add(new Point(in.get(), in.get()));
+                        }
+                        controller.applyRemoteShotResult(row, col, outcome, sunk);
+                    }
+                }
+            });
+            return controller;
+        }
+    }
+
+    MatchWal(Path file, boolean groupCommit) throws IOException {
+        this.file = file;
+        this.groupCommit = groupCommit;
+        Files.createDirectories(file.getParent());
+        long valid = recover();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(valid);
+        channel.position(valid);
+        committed = valid;
+        live.addAll(recovered.keySet());
+        Thread worker = new Thread(this::run, "match-wal");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Process-wide log in {@link #DIRECTORY}, or {@code null} when it cannot be opened. */
+    static MatchWal get() {
+        return Holder.INSTANCE;
+    }
+
+    private static MatchWal openShared() {
+        boolean groupCommit = !"false".equalsIgnoreCase(System.getProperty("battleship.wal.groupCommit"));
+        try {
+            return new MatchWal(Path.of(DIRECTORY, "matches.wal"), groupCommit);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    synchronized List<RecoveredMatch> inFlight() {
+        return new ArrayList<>(recovered.values());
+    }
+
+    synchronized RecoveredMatch findInFlight(long matchId) {
+        return recovered.get(matchId);
+    }
+
+    CompletableFuture<Void> begin(long matchId, GameMode mode, boolean playerStarts, Board board) {
+        byte[] layout = new byte[Board.SIZE * Board.SIZE];
+        int number = 1;
+        for (Ship ship : board.getShips()) {
+            for (Cell cell : ship.getCells()) {
+                layout[cell.getRow() * Board.SIZE + cell.getCol()] = (byte) number;
+            }
+            number++;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(2 + layout.length);
+        payload.put((byte) mode.ordinal()).put((byte) (playerStarts ? 1 : 0)).put(layout);
+        synchronized (this) {
+            live.add(matchId);
+            return enqueue(BEGIN, matchId, payload.array());
+        }
+    }
+
+    CompletableFuture<Void> shot(long matchId, boolean onPlayerBoard, ShotResult result) {
+        List<Cell> sunk = !onPlayerBoard && result.getOutcome() == ShotOutcome.SUNK && result.getShip() != null
+                ? result.getShip().getCells() : new ArrayList<>();
+        ByteBuffer payload = ByteBuffer.allocate(5 + sunk.size() * 2);
+        payload.put((byte) (onPlayerBoard ? 1 : 0))
+                .put((byte) result.getRow())
+                .put((byte) result.getCol())
+                .put((byte) result.getOutcome().ordinal())
+                .put((byte) sunk.size());
+        for (Cell cell : sunk) {
+            payload.put((byte) cell.getRow()).put((byte) cell.getCol());
+        }
+        synchronized (this) {
+            return enqueue(SHOT, matchId, payload.array());
+        }
+    }
+
+    synchronized CompletableFuture<Void> end(long matchId) {
+        recovered.remove(matchId);
+        if (!live.remove(matchId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return enqueue(END, matchId, new byte[0]);
+    }
+
+    /** Ends every recovered match that was not resumed. */
+    synchronized void discardRecovered() {
+        for (Long matchId : new ArrayList<>(recovered.keySet())) {
+            end(matchId);
+        }
+    }
+
+    /** Resumed matches continue under their id and leave the recovery list. */
+    synchronized void markResumed(long matchId) {
+        recovered.remove(matchId);
+    }
+
+    synchronized long getSyncCount() {
+        return syncCount;
+    }
+
+    private CompletableFuture<Void> enqueue(byte type, long matchId, byte[] payload) {
+        int length = 1 + 8 + payload.length;
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(type).putLong(matchId).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + length);
+        record.putInt(length).putInt((int) crc.getValue()).put(body.array()).flip();
+        Pending pending = new Pending(record);
+        queue.add(pending);
+        notifyAll();
+        return pending.done;
+    }
+
+    private void run() {
+        while (true) {
+            List<Pending> batch;
+            synchronized (this) {
+                while (queue.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+                int count = groupCommit ? queue.size() : 1;
+                batch = new ArrayList<>(queue.subList(0, count));
+                queue.subList(0, count).clear();
+            }
+            try {
+                ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i] = batch.get(i).record;
+                }
+                while (buffers[buffers.length - 1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+                channel.force(false);
+                synchronized (this) {
+                    syncCount++;
+                    committed = channel.position();
+                    if (live.isEmpty() && queue.isEmpty()) {
+                        channel.truncate(0);
+                        channel.position(0);
+                        committed = 0;
+                    }
+                }
+                for (Pending pending : batch) {
+                    pending.done.complete(null);
+                }
+            } catch (IOException ex) {
+                rollBack();
+                for (Pending pending : batch) {
+                    pending.done.completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    /** Cuts off whatever part of a failed batch reached the file. */
+    private void rollBack() {
+        try {
+            channel.truncate(committed);
+            channel.position(committed);
+            channel.force(false);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Reads committed records, stopping at the first torn or corrupt one; returns the valid length. */
+    private long recover() throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        while (in.remaining() >= RECORD_HEADER) {
+            int start = in.position();
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length < 9 || length > in.remaining()) {
+                return start;
+            }
+            crc.reset();
+            crc.update(in.array(), in.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+            ByteBuffer body = ByteBuffer.wrap(in.array(), in.position(), length).slice();
+            in.position(in.position() + length);
+            byte type = body.get();
+            long matchId = body.getLong();
+            if (type == BEGIN) {
+                GameMode[] modes = GameMode.values();
+                int mode = body.get();
+                boolean playerStarts = body.get() != 0;
+                byte[] layout = new byte[Board.SIZE * Board.SIZE];
+                body.get(layout);
+                recovered.put(matchId, new RecoveredMatch(matchId,
+                        mode >= 0 && mode < modes.length ? modes[mode] : GameMode.ONLINE_HOST, playerStarts, layout));
+            } else if (type == SHOT) {
+                RecoveredMatch match = recovered.get(matchId);
+                if (match != null) {
+                    byte[] shot = new byte[body.remaining()];
+                    body.get(shot);
+                    match.shots.add(shot);
+                }
+            } else if (type == END) {
+                recovered.remove(matchId);
+            }
+        }
+        return in.position();
+    }
+
+    private static void placeFromLayout(Board board, byte[] layout) {
+        Map<Integer, List<Integer>> ships = new LinkedHashMap<>();
+        for (int i = 0; i < layout.length; i++) {
+            if (layout[i] != 0) {
+                ships.computeIfAbsent((int) layout[i], n -> new ArrayList<>()).add(i);
+            }
+        }
+        for (List<Integer> cells : ships.values()) {
+            int first = cells.get(0);
+            boolean horizontal = cells.size() == 1 || cells.get(1) - first == 1;
+            board.placeShip(cells.size(), first / Board.SIZE, first % Board.SIZE, horizontal);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int shots = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Path directory = Files.createTempDirectory("wal-bench");
+        for (boolean groupCommit : new boolean[] {false, true}) {
+            Path log = directory.resolve(groupCommit ? "group.wal" : "single.wal");
+            MatchWal wal = new MatchWal(log, groupCommit);
+            Board board = new Board(true);
+            Thread[] threads = new Thread[matches];
+            long start = System.nanoTime();
+            for (int m = 0; m < matches; m++) {
+                long matchId = m + 1;
+                threads[m] = new Thread(() -> {
+                    wal.begin(matchId, GameMode.ONLINE_HOST, true, board).join();
+                    for (int i = 0; i < shots; i++) {
+                        wal.shot(matchId, i % 2 == 0, ShotResult.miss(i / Board.SIZE % Board.SIZE, i % Board.SIZE))
+                                .join();
+                    }
+                    wal.end(matchId).join();
+                });
+                threads[m].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long records = (long) matches * (shots + 2);
+            System.out.printf("%s: %d records in %.2f s, %.0f records/s, %d syncs%n",
+                    groupCommit ? "group commit" : "sync per record", records, seconds, records / seconds,
+                    wal.getSyncCount());
+            Files.deleteIfExists(log);
+        }
+        Files.deleteIfExists(directory);
+    }
+}
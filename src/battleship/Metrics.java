@@ -0,0 +1,331 @@
+package battleship;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Engine-wide counters and latency histograms. Counters are striped {@link LongAdder}s and
+ * histograms count into power-of-two buckets of an {@link AtomicLongArray}, so recording from any
+ * thread is a few uncontended atomic adds and never locks. Read through {@link #snapshot()} or JMX.
+ */
+final class Metrics {
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    static final Counter SHOT_MISS = counter("game.shot.miss");
+    static final Counter SHOT_HIT = counter("game.shot.hit");
+    static final Counter SHOT_SUNK = counter("game.shot.sunk");
+    static final Counter SHOT_ALREADY = counter("game.shot.already");
+    static final Counter MESSAGES_SENT = counter("online.messages.sent");
+    static final Counter MESSAGES_RECEIVED = counter("online.messages.received");
+    static final Counter GAMES_FINISHED = counter("games.finished");
+    static final Counter SCHEDULER_COMMANDS = counter("scheduler.commands");
+    static final Counter SCHEDULER_REJECTED = counter("scheduler.rejected");
+    static final Gauge CONNECTIONS = gauge("online.connections");
+    static final Gauge ACTIVE_MATCHES = gauge("online.matches.active");
+    static final Gauge OUTBOUND_PENDING = gauge("online.outbound.pending");
+    static final Gauge SCHEDULED_MATCHES = gauge("scheduler.matches");
+    static final Gauge FOOTPRINT_START = gauge("match.footprint.start.bytes");
+    static final Gauge FOOTPRINT_END = gauge("match.footprint.end.bytes");
+    static final Histogram AI_DECISION = histogram("ai.decision");
+    static final Histogram SAVE_SERIALIZE = histogram("save.serialize");
+    static final Histogram SAVE_WRITE = histogram("save.write");
+    static final Histogram SAVE_LOAD = histogram("save.load");
+
+    static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        private Counter() {
+        }
+
+        void increment() {
+            adder.increment();
+        }
+
+        void add(long amount) {
+            adder.add(amount);
+        }
+
+        long get() {
+            return adder.sum();
+        }
+    }
+
+    /** A level that goes up and down, such as open connections, or a last value set from any thread. */
+    static final class Gauge {
+        private final AtomicLong value = new AtomicLong();
+
+        private Gauge() {
+        }
+
+        void increment() {
+            value.incrementAndGet();
+        }
+
+        void decrement() {
+            value.decrementAndGet();
+        }
+
+        void add(long amount) {
+            value.addAndGet(amount);
+        }
+
+        void set(long newValue) {
+            value.set(newValue);
+        }
+
+        long get() {
+            return value.get();
+        }
+    }
+
+    /** Latencies in nanoseconds; bucket {@code b} holds values below {@code 2^b}. */
+    static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.getAndIncrement(Long.SIZE - Long.numberOfLeadingZeros(value));
+            count.increment();
+            sum.add(value);
+            long seen = max.get();
+            while (value > seen && !max.compareAndSet(seen, value)) {
+                seen = max.get();
+            }
+        }
+
+        /** Records the time since {@code startedNanos}, a {@link System#nanoTime()} reading. */
+        void recordSince(long startedNanos) {
+            record(System.nanoTime() - startedNanos);
+        }
+
+        HistogramSnapshot snapshot() {
+            long[] copy = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = buckets.get(i);
+            }
+            return new HistogramSnapshot(copy, count.sum(), sum.sum(), max.get());
+        }
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+    }
+
+    /** Consistent enough for monitoring; concurrent recording may skew a snapshot by a sample or two. */
+    static final class HistogramSnapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        private HistogramSnapshot(long[] buckets, long count, long sumNanos, long maxNanos) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getSumNanos() {
+            return sumNanos;
+        }
+
+        double getMeanNanos() {
+            return count == 0 ? 0 : sumNanos / (double) count;
+        }
+
+        long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /** Upper bound of the bucket holding the {@code quantile}, capped at the largest sample. */
+        long percentileNanos(double quantile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank && seen > 0) {
+                    return b >= 63 ? maxNanos : Math.min(maxNanos, (1L << b) - 1);
+                }
+            }
+            return 0;
+        }
+    }
+
+    static final class Snapshot {
+        private final Map<String, Long> counters;
+        private final Map<String, Long> gauges;
+        private final Map<String, HistogramSnapshot> histograms;
+
+        private Snapshot(Map<String, Long> counters, Map<String, Long> gauges,
+                Map<String, HistogramSnapshot> histograms) {
+            this.counters = Collections.unmodifiableMap(counters);
+            this.gauges = Collections.unmodifiableMap(gauges);
+            this.histograms = Collections.unmodifiableMap(histograms);
+        }
+
+        Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        Map<String, Long> getGauges() {
+            return gauges;
+        }
+
+        Map<String, HistogramSnapshot> getHistograms() {
+            return histograms;
+        }
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return snapshot().getCounters();
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            return snapshot().getGauges();
+        }
+
+        @Override
+        public Map<String, Long> getLatencyCounts() {
+            return latencies(HistogramSnapshot::getCount);
+        }
+
+        @Override
+        public Map<String, Double> getLatencyMeanMicros() {
+            return micros(HistogramSnapshot::getMeanNanos);
+        }
+
+        @Override
+        public Map<String, Double> getLatencyP50Micros() {
+            return micros(h -> h.percentileNanos(0.50));
+        }
+
+        @Override
+        public Map<String, Double> getLatencyP99Micros() {
+            return micros(h -> h.percentileNanos(0.99));
+        }
+
+        @Override
+        public Map<String, Double> getLatencyMaxMicros() {
+            return micros(HistogramSnapshot::getMaxNanos);
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+
+        private static Map<String, Long> latencies(ToLongFunction<HistogramSnapshot> value) {
+            Map<String, Long> result = new LinkedHashMap<>();
+            snapshot().getHistograms().forEach((name, h) -> result.put(name, value.applyAsLong(h)));
+            return result;
+        }
+
+        private static Map<String, Double> micros(ToDoubleFunction<HistogramSnapshot> nanos) {
+            Map<String, Double> result = new LinkedHashMap<>();
+            snapshot().getHistograms().forEach((name, h) -> result.put(name, nanos.applyAsDouble(h) / 1000.0));
+            return result;
+        }
+    }
+
+    private Metrics() {
+    }
+
+    static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter());
+    }
+
+    static Gauge gauge(String name) {
+        return GAUGES.computeIfAbsent(name, key -> new Gauge());
+    }
+
+    static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    static void recordShot(ShotResult result) {
+        switch (result.getOutcome()) {
+            case MISS:
+                SHOT_MISS.increment();
+                break;
+            case HIT:
+                SHOT_HIT.increment();
+                break;
+            case SUNK:
+                SHOT_SUNK.increment();
+                break;
+            default:
+                SHOT_ALREADY.increment();
+                break;
+        }
+    }
+
+    /** Counters, gauges and histograms by name, sorted. */
+    static Snapshot snapshot() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        COUNTERS.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> counters.put(entry.getKey(), entry.getValue().get()));
+        Map<String, Long> gauges = new LinkedHashMap<>();
+        GAUGES.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> gauges.put(entry.getKey(), entry.getValue().get()));
+        Map<String, HistogramSnapshot> histograms = new LinkedHashMap<>();
+        HISTOGRAMS.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> histograms.put(entry.getKey(), entry.getValue().snapshot()));
+        return new Snapshot(counters, gauges, histograms);
+    }
+
+    static void reset() {
+        for (Counter counter : COUNTERS.values()) {
+            counter.adder.reset();
+        }
+        for (Histogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /** Publishes the metrics to the platform MBean server; safe to call more than once. */
+    static void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("battleship:type=Metrics");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+            }
+        } catch (JMException ignored) {
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package battleship;
+
+import java.util.Map;
+
+/** JMX view of {@link Metrics}, registered as {@code battleship:type=Metrics}. Latencies in microseconds. */
+public interface MetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getGauges();
+
+    Map<String, Long> getLatencyCounts();
+
+    Map<String, Double> getLatencyMeanMicros();
+
+    Map<String, Double> getLatencyP50Micros();
+
+    Map<String, Double> getLatencyP99Micros();
+
+    Map<String, Double> getLatencyMaxMicros();
+
+    void reset();
+}
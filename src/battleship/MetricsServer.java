@@ -0,0 +1,156 @@
+package battleship;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Loopback HTTP endpoint for running the host as a service: {@code /metrics} in the Prometheus
+ * text format and {@code /ready} as a readiness probe. A publisher thread renders the page from a
+ * {@link Metrics#snapshot()} once a second and swaps it in atomically; a scrape only sends the last
+ * page, so scrapers never contend with match threads however often they poll.
+ * Enabled with {@code -Dbattleship.metrics.port=<port>}.
+ */
+final class MetricsServer {
+    static final String PORT_PROPERTY = "battleship.metrics.port";
+
+    private static final long PUBLISH_MS = 1000;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ScheduledExecutorService publisher;
+    private final AtomicReference<byte[]> page = new AtomicReference<>();
+    private final BooleanSupplier ready;
+
+    private MetricsServer(int port, BooleanSupplier ready) throws IOException {
+        this.ready = ready;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", this::serveMetrics);
+        server.createContext("/ready", this::serveReady);
+        server.setExecutor(Executors.newSingleThreadExecutor(task -> daemon(task, "metrics-http")));
+        publisher = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, "metrics-publisher"));
+    }
+
+    /** Starts on {@code port}, 0 picking a free one; {@code ready} answers the readiness probe. */
+    static MetricsServer start(int port, BooleanSupplier ready) throws IOException {
+        // Small responses otherwise wait for the client's delayed ACK (about 40 ms per scrape).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        MetricsServer metrics = new MetricsServer(port, ready);
+        metrics.publish();
+        metrics.publisher.scheduleAtFixedRate(metrics::publish, PUBLISH_MS, PUBLISH_MS, TimeUnit.MILLISECONDS);
+        metrics.server.start();
+        return metrics;
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        publisher.shutdownNow();
+        server.stop(0);
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void serveMetrics(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, page.get());
+    }
+
+    private void serveReady(HttpExchange exchange) throws IOException {
+        boolean isReady = ready.getAsBoolean();
+        respond(exchange, isReady ? 200 : 503,
+                (isReady ? "ready\n" : "starting\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(status, head ? -1 : body.length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    private void publish() {
+        page.set(render(Metrics.snapshot()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String render(Metrics.Snapshot snapshot) {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Long> counter : snapshot.getCounters().entrySet()) {
+            String name = metricName(counter.getKey()) + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(counter.getValue()).append('\n');
+        }
+        for (Map.Entry<String, Long> gauge : snapshot.getGauges().entrySet()) {
+            gauge(out, metricName(gauge.getKey()), gauge.getValue());
+        }
+        gauge(out, "battleship_persistence_queue_depth", PersistenceExecutor.get().queueDepth());
+        for (Map.Entry<String, Metrics.HistogramSnapshot> entry : snapshot.getHistograms().entrySet()) {
+            String name = metricName(entry.getKey()) + "_seconds";
+            Metrics.HistogramSnapshot histogram = entry.getValue();
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(histogram.percentileNanos(quantile) / 1e9).append('\n');
+            }
+            out.append(name).append("_sum ").append(histogram.getSumNanos() / 1e9)
+                    .append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        gauge(out, "battleship_heap_used_bytes", heap.getUsed());
+        gauge(out, "battleship_heap_committed_bytes", heap.getCommitted());
+        gauge(out, "battleship_heap_max_bytes", heap.getMax());
+        return out.toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, long value) {
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    /** {@code game.shot.miss} becomes {@code battleship_game_shot_miss}, camelCase is split too. */
+    private static String metricName(String name) {
+        StringBuilder builder = new StringBuilder("battleship_");
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (Character.isUpperCase(ch)) {
+                builder.append('_').append(Character.toLowerCase(ch));
+            } else if (Character.isLetterOrDigit(ch)) {
+                builder.append(ch);
+            } else {
+                builder.append('_');
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package battleship;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import javax.swing.BorderFactory;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+
+/**
+ * Translucent panel showing {@link EdtMonitor#summary()}, refreshed twice a second while visible.
+ * The monitor runs only while the panel is shown, unless something else had already started it.
+ */
+class MonitorOverlay extends JTextArea {
+    private static final int REFRESH_MS = 500;
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+
+    private final Timer timer = new Timer(REFRESH_MS, e -> update());
+    private boolean startedMonitor;
+
+    MonitorOverlay() {
+        setEditable(false);
+        setFocusable(false);
+        setOpaque(false);
+        setForeground(new Color(0xc8e6c9));
+        setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        setBorder(BorderFactory.createEmptyBorder(6, 8, 6, 8));
+        setVisible(false);
+    }
+
+    void toggle() {
+        boolean show = !isVisible();
+        if (show) {
+            startedMonitor = !EdtMonitor.get().isEnabled();
+            EdtMonitor.get().start();
+            update();
+            timer.start();
+        } else {
+            timer.stop();
+            if (startedMonitor) {
+                EdtMonitor.get().stop();
+                startedMonitor = false;
+            }
+        }
+        setVisible(show);
+    }
+
+    private void update() {
+        String summary = EdtMonitor.get().summary();
+        setText(summary.isEmpty() ? "EDT monitor: collecting..." : summary.trim());
+        Dimension size = getPreferredSize();
+        if (getParent() != null) {
+            setBounds(getParent().getWidth() - size.width - 8, 8, size.width, size.height);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        super.paintComponent(g);
+    }
+}
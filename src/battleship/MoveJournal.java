@@ -0,0 +1,217 @@
+package battleship;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Append-only log of shots for one game. Every move costs a fixed-size record, and every
+ * {@value #CHECKPOINT_INTERVAL} moves the full {@link GameState} is checkpointed in the background
+ * and a new journal segment is started. Segments older than the last committed checkpoint are
+ * deleted once that checkpoint is on disk. Loading replays the segments of the checkpointed game on
+ * top of the checkpoint.
+ */
+class MoveJournal implements GameController.MoveListener {
+    static final String AUTOSAVE = "autosave";
+    private static final int CHECKPOINT_INTERVAL = 20;
+    private static final int RECORD_SIZE = 7;
+
+    private final String name;
+    private final GameController controller;
+    private final Supplier<Language> language;
+    private final byte[] record = new byte[RECORD_SIZE];
+    private FileOutputStream out;
+    private int segment;
+    private int sinceCheckpoint;
+
+    private MoveJournal(String name, GameController controller, Supplier<Language> language) {
+        this.name = name;
+        this.controller = controller;
+        this.language = language;
+    }
+
+    static MoveJournal start(String name, GameController controller, Supplier<Language> language)
+            throws IOException {
+        Files.createDirectories(SaveManager.saveDirectory());
+        MoveJournal journal = new MoveJournal(name, controller, language);
+        journal.checkpoint();
+        controller.addMoveListener(journal);
+        return journal;
+    }
+
+    static int replay(String name, GameController controller) throws IOException {
+        int applied = 0;
+        for (Path path : segments(name, controller.getGameId())) {
+            try (InputStream file = Files.newInputStream(path);
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+                while (true) {
+                    int sequence;
+                    int board;
+                    int row;
+                    int col;
+                    try {
+                        sequence = in.readInt();
+                        board = in.readByte();
+                        row = in.readByte();
+                        col = in.readByte();
+                    } catch (EOFException torn) {
+                        break;
+                    }
+                    if (row < 0 || col < 0 || row >= Board.SIZE || col >= Board.SIZE) {
+                        break;
+                    }
+                    controller.replayMove(sequence, board == 1, row, col);
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    @Override
+    public void onMove(int sequence, boolean onPlayerBoard, ShotResult result) {
+        if (out == null) {
+            return;
+        }
+        if (controller.isGameOver()) {
+            discard();
+            return;
+        }
+        record[0] = (byte) (sequence >>> 24);
+        record[1] = (byte) (sequence >>> 16);
+        record[2] = (byte) (sequence >>> 8);
+        record[3] = (byte) sequence;
+        record[4] = (byte) (onPlayerBoard ? 1 : 0);
+        record[5] = (byte) result.getRow();
+        record[6] = (byte) result.getCol();
+        try {
+            out.write(record);
+            if (++sinceCheckpoint >= CHECKPOINT_INTERVAL) {
+                checkpoint();
+            }
+        } catch (IOException ex) {
+            close();
+        }
+    }
+
+    @Override
+    public void onHistoryChanged() {
+        if (out == null) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (IOException ex) {
+            close();
+        }
+    }
+
+    void close() {
+        controller.removeMoveListener(this);
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+        }
+    }
+
+    void discard() {
+        close();
+        long gameId = controller.getGameId();
+        SaveManager.delete(name).thenRun(() -> {
+            for (Path path : segments(name, gameId)) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                }
+            }
+        });
+    }
+
+    private void checkpoint() throws IOException {
+        if (out != null) {
+            out.close();
+            segment++;
+        }
+        long gameId = controller.getGameId();
+        int committedSegment = segment;
+        out = new FileOutputStream(SaveManager.journalPath(name, gameId, segment).toFile());
+        sinceCheckpoint = 0;
+        SaveManager.save(controller.createState(language.get()), name,
+                () -> deleteSegments(name, gameId, committedSegment));
+    }
+
+    /** Deletes every segment of {@code name} except those of {@code gameId} numbered from {@code keepFrom}. */
+    private static void deleteSegments(String name, long gameId, int keepFrom) {
+        String current = Long.toHexString(gameId);
+        for (Path path : listSegments(name)) {
+            String[] parts = parseSegment(path);
+            if (parts[0].equals(current) && Integer.parseInt(parts[1]) >= keepFrom) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static List<Path> segments(String name, long gameId) {
+        String id = Long.toHexString(gameId);
+        List<Path> result = new ArrayList<>();
+        for (Path path : listSegments(name)) {
+            if (parseSegment(path)[0].equals(id)) {
+                result.add(path);
+            }
+        }
+        result.sort((a, b) -> Integer.compare(Integer.parseInt(parseSegment(a)[1]),
+                Integer.parseInt(parseSegment(b)[1])));
+        return result;
+    }
+
+    private static List<Path> listSegments(String name) {
+        List<Path> result = new ArrayList<>();
+        Path dir = SaveManager.saveDirectory();
+        if (!Files.isDirectory(dir)) {
+            return result;
+        }
+        String base = SaveManager.baseName(name);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, base + "-*-*.journal")) {
+            for (Path path : stream) {
+                String[] parts = parseSegment(path);
+                if (parts != null && parts[2].equals(base)) {
+                    result.add(path);
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        return result;
+    }
+
+    /** Splits {@code <name>-<gameId>-<segment>.journal} into gameId, segment and name. */
+    private static String[] parseSegment(Path path) {
+        String file = path.getFileName().toString();
+        int end = file.length() - ".journal".length();
+        int segmentStart = file.lastIndexOf('-', end) + 1;
+        int idStart = segmentStart > 1 ? file.lastIndexOf('-', segmentStart - 2) + 1 : 0;
+        if (idStart <= 1 || segmentStart <= idStart + 1) {
+            return null;
+        }
+        String segment = file.substring(segmentStart, end);
+        if (segment.isEmpty() || segment.length() > 9 || !segment.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return new String[] {file.substring(idStart, segmentStart - 1), segment, file.substring(0, idStart - 1)};
+    }
+}
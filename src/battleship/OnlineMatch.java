@@ -6,11 +6,24 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.SwingUtilities;
 
 class OnlineMatch {
+    private static final int NEW = 0;
+    private static final int ACTIVE = 1;
+    private static final int CLOSED = 2;
+
     interface Listener {
         void onOpponentReady();
         void onLocalShotResult(ShotResult result);
@@ -19,9 +32,12 @@ class OnlineMatch {
         void onGameOver(boolean localWon);
         void onNetworkError(String message);
         void requestBoardRefresh();
+        void onMatchResumed(GameController restored);
+        void onResumeDeclined();
+        void onMatchError(String message);
     }
 
-    private final GameController controller;
+    private GameController controller;
     private final Listener listener;
     private final Socket socket;
     private final PrintWriter writer;
@@ -32,23 +48,64 @@ class OnlineMatch {
     private volatile boolean localReady;
     private volatile boolean remoteReady;
     private PendingShot pendingShot;
+    private final MatchWal wal = MatchWal.get();
+    private long matchId;
+    private MatchWal.RecoveredMatch resumeCandidate;
+    private volatile boolean resumed;
+    private boolean logged;
+    private CompletableFuture<Void> outbound = CompletableFuture.completedFuture(null);
+    private final MatchTrace trace = new MatchTrace();
+    private final AtomicBoolean connected = new AtomicBoolean(true);
+    /** NEW, ACTIVE or CLOSED; one CAS per transition, so the active-match gauge cannot drift. */
+    private final AtomicInteger state = new AtomicInteger(NEW);
+    private final AtomicBoolean failed = new AtomicBoolean();
+    private final Set<Integer> dumpedErrors = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "match-send");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     OnlineMatch(GameController controller, Listener listener, Socket socket) throws IOException {
+        this(controller, listener, socket, null);
+    }
+
+    /**
+     * The host proposes the match id; with {@code resumeCandidate} it asks the client to continue a
+     * match recovered from the {@link MatchWal} instead.
+     */
+    OnlineMatch(GameController controller, Listener listener, Socket socket,
+            MatchWal.RecoveredMatch resumeCandidate) throws IOException {
         this.controller = controller;
         this.listener = listener;
         this.socket = socket;
         this.writer = new PrintWriter(socket.getOutputStream(), true);
         this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        Metrics.CONNECTIONS.increment();
+        if (controller.getMode() == GameMode.ONLINE_HOST) {
+            this.resumeCandidate = resumeCandidate;
+            if (resumeCandidate != null) {
+                matchId = resumeCandidate.getMatchId();
+                send("RESUME " + Long.toHexString(matchId) + " " + resumeCandidate.getMoveCount());
+            } else {
+                announceMatch();
+            }
+        }
         readerThread = new Thread(this::listen, "online-listener");
         readerThread.setDaemon(true);
         readerThread.start();
     }
 
+    boolean isResumed() {
+        return resumed;
+    }
+
     void markLocalReady() {
-        if (localReady) {
+        if (localReady || resumed) {
             return;
         }
         localReady = true;
+        trace.state(MatchTrace.LOCAL_READY, true);
         send("READY");
         checkStart();
     }
@@ -59,29 +116,63 @@ class OnlineMatch {
 
     void fireShot(int row, int col) {
         if (!isReadyToPlay() || pendingShot != null || controller.isGameOver()) {
+            trace.record(MatchTrace.DECISION, MatchTrace.SHOT_REFUSED, row, col);
             return;
         }
         pendingShot = new PendingShot(row, col);
-        send("SHOT " + row + " " + col);
+        trace.state(MatchTrace.SHOT_PENDING, true);
+        sendAfter(null, "SHOT " + row + " " + col);
     }
 
     void disconnect() {
-        send("DISCONNECT");
-        shutdown();
+        endLog();
+        sendAfter(null, "DISCONNECT");
+        shutdownAfterSends();
+    }
+
+    /** Writes the trace of this match to a file; the path is returned straight away. */
+    Path dumpTrace(String reason) {
+        return trace.dumpToFile(matchId, reason);
+    }
+
+    /**
+     * Records an error and dumps the trace for the first error of each kind only, so a peer that
+     * keeps sending garbage cannot fill the disk with trace files.
+     */
+    private void traceError(int code, int a, int b, String reason) {
+        trace.record(MatchTrace.ERROR, code, a, b);
+        if (dumpedErrors.add(code)) {
+            dumpTrace(reason);
+        }
     }
 
     void shutdown() {
+        trace.state(MatchTrace.CLOSED, true);
         running = false;
+        closeSocket();
+        sender.shutdown();
+    }
+
+    private void closeSocket() {
         try {
             socket.close();
         } catch (IOException ignored) {
         }
+        if (state.getAndSet(CLOSED) == ACTIVE) {
+            Metrics.ACTIVE_MATCHES.decrement();
+        }
+        if (connected.compareAndSet(true, false)) {
+            Metrics.CONNECTIONS.decrement();
+        }
     }
 
     private void listen() {
         try {
             String line;
             while (running && (line = reader.readLine()) != null) {
+                Metrics.MESSAGES_RECEIVED.increment();
+                FlightEvents.networkMessage(false, line);
+                trace.message(false, line);
                 final String message = line.trim();
                 if (message.isEmpty()) {
                     continue;
@@ -90,20 +181,40 @@ class OnlineMatch {
             }
         } catch (IOException ex) {
             if (running) {
+                traceError(MatchTrace.NETWORK, -1, -1, "network error: " + ex.getMessage());
                 SwingUtilities.invokeLater(() -> listener.onNetworkError(ex.getMessage()));
             }
         } finally {
             running = false;
-            try {
-                socket.close();
-            } catch (IOException ignored) {
-            }
+            closeSocket();
         }
     }
 
     private void processMessage(String message) {
+        if (message.startsWith("MATCH")) {
+            handleMatch(message);
+            return;
+        }
+        if (message.startsWith("RESUME_OK")) {
+            resume(resumeCandidate);
+            return;
+        }
+        if (message.startsWith("RESUME_NO")) {
+            if (wal != null) {
+                wal.discardRecovered();
+            }
+            resumeCandidate = null;
+            announceMatch();
+            listener.onResumeDeclined();
+            return;
+        }
+        if (message.startsWith("RESUME")) {
+            handleResumeRequest(message);
+            return;
+        }
         if (message.startsWith("READY")) {
             remoteReady = true;
+            trace.state(MatchTrace.REMOTE_READY, true);
             listener.onOpponentReady();
             checkStart();
             return;
@@ -121,6 +232,8 @@ class OnlineMatch {
             return;
         }
         if (message.startsWith("DISCONNECT")) {
+            endLog();
+            trace.record(MatchTrace.DECISION, MatchTrace.CONCLUDE, 1, controller.getMoveCount());
             controller.concludeOnlineGame(true);
             listener.onGameOver(true);
             shutdown();
@@ -136,45 +249,67 @@ class OnlineMatch {
             int row = Integer.parseInt(parts[1]);
             int col = Integer.parseInt(parts[2]);
             ShotResult result = controller.applyIncomingOnlineShot(row, col);
-            send(buildResultMessage(result));
+            trace.record(MatchTrace.DECISION, MatchTrace.APPLY_INCOMING, result.getOutcome().ordinal(),
+                    controller.getMoveCount());
+            CompletableFuture<Void> commit = logShot(true, result);
+            boolean over = controller.isGameOver();
+            if (over) {
+                sendAfter(commit, buildResultMessage(result), "GAME_OVER WIN");
+                shutdownAfterSends();
+            } else {
+                sendAfter(commit, buildResultMessage(result));
+            }
             listener.onIncomingShot(result);
             listener.requestBoardRefresh();
-            if (controller.isGameOver()) {
-                send("GAME_OVER WIN");
+            if (over) {
                 listener.onGameOver(false);
-                shutdown();
             } else {
-                listener.onTurnChanged(controller.isPlayerTurn());
+                turnChanged();
             }
-        } catch (NumberFormatException ignored) {
+        } catch (NumberFormatException ex) {
+            malformed(message);
         }
     }
 
+    private void malformed(String message) {
+        String shown = message.length() > 80 ? message.substring(0, 80) + "..." : message;
+        traceError(MatchTrace.MALFORMED, message.length(), -1, "malformed message: " + shown);
+    }
+
     private void handleResult(String message) {
         if (pendingShot == null) {
+            traceError(MatchTrace.RESULT_WITHOUT_SHOT, controller.getMoveCount(), -1,
+                    "RESULT without a pending shot");
             return;
         }
         String[] parts = message.split(" ", 3);
         if (parts.length < 2) {
+            malformed(message);
             return;
         }
         ShotOutcome outcome;
         try {
             outcome = ShotOutcome.valueOf(parts[1]);
         } catch (IllegalArgumentException ex) {
+            malformed(message);
             return;
         }
         List<Point> sunk = parts.length == 3 ? parsePoints(parts[2]) : new ArrayList<>();
         ShotResult result = controller.applyRemoteShotResult(pendingShot.row, pendingShot.col, outcome, sunk);
+        trace.record(MatchTrace.DECISION, MatchTrace.APPLY_RESULT, result.getOutcome().ordinal(),
+                controller.getMoveCount());
+        logShot(false, result);
         pendingShot = null;
+        trace.state(MatchTrace.SHOT_RESOLVED, true);
         listener.onLocalShotResult(result);
         listener.requestBoardRefresh();
         if (controller.isGameOver() && !finished) {
             finished = true;
+            trace.state(MatchTrace.FINISHED, true);
             listener.onGameOver(true);
             shutdown();
         } else {
-            listener.onTurnChanged(controller.isPlayerTurn());
+            turnChanged();
         }
     }
 
@@ -184,26 +319,159 @@ class OnlineMatch {
             return;
         }
         boolean localWin = parts.length > 1 && "WIN".equalsIgnoreCase(parts[1]);
+        endLog();
+        trace.record(MatchTrace.DECISION, MatchTrace.CONCLUDE, localWin ? 1 : 0, controller.getMoveCount());
         controller.concludeOnlineGame(localWin);
         finished = true;
+        trace.state(MatchTrace.FINISHED, true);
         listener.onGameOver(localWin);
         shutdown();
     }
 
+    private void handleMatch(String message) {
+        String[] parts = message.split(" ");
+        if (parts.length < 2) {
+            return;
+        }
+        try {
+            matchId = Long.parseUnsignedLong(parts[1], 16);
+        } catch (NumberFormatException ignored) {
+        }
+        if (wal != null) {
+            wal.discardRecovered();
+        }
+    }
+
+    private void handleResumeRequest(String message) {
+        String[] parts = message.split(" ");
+        MatchWal.RecoveredMatch candidate = null;
+        if (parts.length >= 3 && wal != null) {
+            try {
+                candidate = wal.findInFlight(Long.parseUnsignedLong(parts[1], 16));
+                if (candidate != null && candidate.getMoveCount() != Integer.parseInt(parts[2])) {
+                    candidate = null;
+                }
+            } catch (NumberFormatException ignored) {
+                candidate = null;
+            }
+        }
+        if (candidate == null) {
+            send("RESUME_NO");
+            return;
+        }
+        send("RESUME_OK");
+        resume(candidate);
+    }
+
+    private void resume(MatchWal.RecoveredMatch candidate) {
+        if (candidate == null || resumed) {
+            return;
+        }
+        GameController restored = candidate.restore(controller.getStatisticsManager());
+        restored.setOpponent(controller.getOpponent());
+        matchId = candidate.getMatchId();
+        wal.markResumed(matchId);
+        wal.discardRecovered();
+        controller = restored;
+        resumed = true;
+        trace.state(MatchTrace.RESUMED, true);
+        logged = true;
+        localReady = true;
+        remoteReady = true;
+        listener.onMatchResumed(restored);
+        checkStart();
+    }
+
+    private void announceMatch() {
+        matchId = controller.getGameId();
+        send("MATCH " + Long.toHexString(matchId));
+    }
+
+    private CompletableFuture<Void> logShot(boolean onPlayerBoard, ShotResult result) {
+        if (wal == null || !logged || result.getOutcome() == ShotOutcome.ALREADY) {
+            return null;
+        }
+        CompletableFuture<Void> commit = wal.shot(matchId, onPlayerBoard, result);
+        if (controller.isGameOver()) {
+            commit = wal.end(matchId);
+        }
+        return commit;
+    }
+
+    private void endLog() {
+        if (wal != null && logged) {
+            wal.end(matchId);
+        }
+    }
+
+    /**
+     * Sends once {@code commit} is durable, keeping the order of everything sent before. Sending
+     * runs on this match's own thread, never on the log writer, so a slow peer cannot hold up
+     * commits of other matches. A failed commit sends nothing more and ends the match.
+     */
+    private synchronized void sendAfter(CompletableFuture<Void> commit, String... messages) {
+        CompletableFuture<Void> durable = commit == null ? CompletableFuture.completedFuture(null) : commit;
+        Metrics.OUTBOUND_PENDING.add(messages.length);
+        outbound = outbound.thenCombine(durable, (a, b) -> (Void) null).thenRunAsync(() -> {
+            for (String message : messages) {
+                Metrics.OUTBOUND_PENDING.decrement();
+                send(message);
+            }
+        }, sender);
+        outbound.whenComplete((ignored, error) -> {
+            if (error != null) {
+                Metrics.OUTBOUND_PENDING.add(-messages.length);
+                logFailed(error);
+            }
+        });
+    }
+
+    private void logFailed(Throwable error) {
+        if (!running || !failed.compareAndSet(false, true)) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        traceError(MatchTrace.LOG_FAILED, -1, -1, "match log failed: " + cause.getMessage());
+        SwingUtilities.invokeLater(() -> {
+            shutdown();
+            listener.onMatchError(cause.getMessage());
+        });
+    }
+
+    private synchronized void shutdownAfterSends() {
+        outbound.whenComplete((v, ex) -> shutdown());
+    }
+
     private void send(String text) {
         synchronized (writer) {
             writer.println(text);
             writer.flush();
         }
+        Metrics.MESSAGES_SENT.increment();
+        FlightEvents.networkMessage(true, text);
+        trace.message(true, text);
     }
 
     private void checkStart() {
         if (isReadyToPlay()) {
-            listener.onTurnChanged(controller.isPlayerTurn());
+            if (state.compareAndSet(NEW, ACTIVE)) {
+                Metrics.ACTIVE_MATCHES.increment();
+            }
+            if (!logged && wal != null) {
+                logged = true;
+                wal.begin(matchId, controller.getMode(), controller.isPlayerTurn(), controller.getPlayerBoard());
+            }
+            turnChanged();
             listener.requestBoardRefresh();
         }
     }
 
+    private void turnChanged() {
+        trace.state(MatchTrace.TURN, controller.isPlayerTurn());
+        listener.onTurnChanged(controller.isPlayerTurn());
+    }
+
     private String buildResultMessage(ShotResult result) {
         StringBuilder builder = new StringBuilder();
         builder.append("RESULT ").append(result.getOutcome().name());
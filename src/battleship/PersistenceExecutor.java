@@ -0,0 +1,204 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Background writer for saves and statistics. Callers hand over already serialized bytes, so the
+ * snapshot is consistent with the moment of the call; a newer write for the same file replaces a
+ * queued older one together with its after-commit action. Every file is committed through a temp
+ * file, fsync and atomic rename. Writing {@code null} deletes the file instead; appends are
+ * concatenated while queued and written in place.
+ */
+class PersistenceExecutor {
+    private static final PersistenceExecutor INSTANCE = new PersistenceExecutor();
+
+    private final Map<Path, PendingWrite> pending = new LinkedHashMap<>();
+    private final Thread worker;
+    private boolean writing;
+    private volatile int depth;
+
+    private PersistenceExecutor() {
+        worker = new Thread(this::run, "persistence-writer");
+        worker.setDaemon(true);
+        worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "persistence-flush"));
+    }
+
+    static PersistenceExecutor get() {
+        return INSTANCE;
+    }
+
+    CompletableFuture<Void> write(Path target, byte[] data) {
+        return write(target, data, null);
+    }
+
+    CompletableFuture<Void> delete(Path target) {
+        return write(target, null, null);
+    }
+
+    synchronized CompletableFuture<Void> write(Path target, byte[] data, Runnable afterCommit) {
+        PendingWrite write = enqueue(target, false);
+        write.data = data;
+        write.afterCommit.clear();
+        return attach(write, afterCommit);
+    }
+
+    synchronized CompletableFuture<Void> append(Path target, byte[] data) {
+        PendingWrite write = enqueue(target, true);
+        if (write.data == null) {
+            write.data = data;
+        } else {
+            byte[] joined = Arrays.copyOf(write.data, write.data.length + data.length);
+            System.arraycopy(data, 0, joined, write.data.length, data.length);
+            write.data = joined;
+        }
+        return attach(write, null);
+    }
+
+    private PendingWrite enqueue(Path target, boolean append) {
+        PendingWrite write = pending.get(target);
+        if (write == null) {
+            write = new PendingWrite(target, append);
+            pending.put(target, write);
+            depth = pending.size();
+        } else if (write.append != append) {
+            throw new IllegalStateException("Змішані дозапис і перезапис файлу " + target);
+        }
+        return write;
+    }
+
+    private CompletableFuture<Void> attach(PendingWrite write, Runnable afterCommit) {
+        if (afterCommit != null) {
+            write.afterCommit.add(afterCommit);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        write.futures.add(future);
+        notifyAll();
+        return future;
+    }
+
+    synchronized void flush() {
+        if (Thread.currentThread() == worker) {
+            return;
+        }
+        while (!pending.isEmpty() || writing) {
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Files waiting to be written; read without locking, so it may lag a write by a moment. */
+    int queueDepth() {
+        return depth;
+    }
+
+    private void run() {
+        while (true) {
+            PendingWrite write;
+            synchronized (this) {
+                while (pending.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+                Iterator<PendingWrite> it = pending.values().iterator();
+                write = it.next();
+                it.remove();
+                depth = pending.size();
+                writing = true;
+            }
+            IOException failure = null;
+            try {
+                if (write.append) {
+                    appendTo(write.target, write.data);
+                } else if (write.data == null) {
+                    Files.deleteIfExists(write.target);
+                } else {
+                    commit(write.target, write.data);
+                }
+                for (Runnable action : write.afterCommit) {
+                    action.run();
+                }
+            } catch (IOException ex) {
+                failure = ex;
+            } catch (RuntimeException ex) {
+                failure = new IOException(ex);
+            }
+            for (CompletableFuture<Void> future : write.futures) {
+                if (failure == null) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            }
+            synchronized (this) {
+                writing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    static void commit(Path target, byte[] data) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void appendTo(Path target, byte[] data) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static class PendingWrite {
+        final Path target;
+        final boolean append;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        final List<Runnable> afterCommit = new ArrayList<>();
+        byte[] data;
+
+        PendingWrite(Path target, boolean append) {
+            this.target = target;
+            this.append = append;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package battleship;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Startup work that the first frame does not need. It runs on one background thread, started
+ * before the window is built, so disk reads overlap with toolkit start-up and the menu paints
+ * without waiting for them. Statistics come first because the first game needs them.
+ */
+final class Preloader {
+    private final long launchedAt;
+    private final CompletableFuture<StatisticsManager> statistics;
+    private final ExecutorService executor;
+
+    private Preloader(long launchedAt) {
+        this.launchedAt = launchedAt;
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        statistics = CompletableFuture.supplyAsync(StatisticsManager::load, executor);
+        executor.execute(SaveCatalog::list);
+        executor.execute(Preloader::warmAiTables);
+        executor.execute(GameArchive::get);
+        executor.execute(MatchWal::get);
+        executor.execute(Metrics::registerMBean);
+        executor.shutdown();
+    }
+
+    static Preloader start() {
+        return new Preloader(System.nanoTime());
+    }
+
+    /** {@link System#nanoTime()} when the process entered {@code main}. */
+    long getLaunchedAt() {
+        return launchedAt;
+    }
+
+    /** True once every preload task has finished. */
+    boolean isReady() {
+        return executor.isTerminated();
+    }
+
+    /** Loaded statistics; blocks only if they are needed before the preload got to them. */
+    StatisticsManager statistics() {
+        return statistics.join();
+    }
+
+    private static void warmAiTables() {
+        Board board = new Board();
+        Zobrist.hash(board);
+        ComputerAI.densityCache();
+        ComputerAI.placementDensity(board);
+    }
+}
@@ -0,0 +1,280 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read side of the replay format. A replay file is
+ * <pre>
+ * header    magic, version, mode, board size, keyframe interval, move count, game id, start time
+ * layout    ship number per cell for both boards (0 = water)
+ * moves     4 bytes per move: board, row, col, outcome
+ * keyframes cell states of both boards after every {@code interval} moves, starting with move 0
+ * </pre>
+ * Every section has a fixed record size, so the offset of any move or keyframe is computed
+ * directly and {@link #positionAt(int)} applies at most {@code interval - 1} moves.
+ */
+class Replay {
+    static final int STATE_FOG = 0;
+    static final int STATE_SHIP = 1;
+    static final int STATE_MISS = 2;
+    static final int STATE_HIT = 3;
+    static final int STATE_SUNK = 4;
+
+    static final int MAGIC = 0x42535250;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 2 + 1 + 1 + 2 + 4 + 8 + 8;
+    static final int MOVE_SIZE = 4;
+    static final String DIRECTORY = "replays";
+    static final String EXTENSION = ".rpl";
+
+    private final ByteBuffer data;
+    private final GameMode mode;
+    private final int size;
+    private final int interval;
+    private final int moveCount;
+    private final long gameId;
+    private final long startedAt;
+    private final byte[] layout;
+
+    static final class Position {
+        private final int move;
+        private final int size;
+        private final byte[] states;
+
+        Position(int move, int size, byte[] states) {
+            this.move = move;
+            this.size = size;
+            this.states = states;
+        }
+
+        int getMove() {
+            return move;
+        }
+
+        int cell(boolean enemyBoard, int row, int col) {
+            return states[(enemyBoard ? size * size : 0) + row * size + col];
+        }
+    }
+
+    static final class Move {
+        private final boolean onPlayerBoard;
+        private final int row;
+        private final int col;
+        private final ShotOutcome outcome;
+
+        Move(boolean onPlayerBoard, int row, int col, ShotOutcome outcome) {
+            this.onPlayerBoard = onPlayerBoard;
+            this.row = row;
+            this.col = col;
+            this.outcome = outcome;
+        }
+
+        boolean isOnPlayerBoard() {
+            return onPlayerBoard;
+        }
+
+        int getRow() {
+            return row;
+        }
+
+        int getCol() {
+            return col;
+        }
+
+        ShotOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    /** The fixed-size header alone, so a list of replays does not read whole files. */
+    static final class Header {
+        private final Path path;
+        private final GameMode mode;
+        private final int moveCount;
+        private final long startedAt;
+
+        private Header(Path path, GameMode mode, int moveCount, long startedAt) {
+            this.path = path;
+            this.mode = mode;
+            this.moveCount = moveCount;
+            this.startedAt = startedAt;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        GameMode getMode() {
+            return mode;
+        }
+
+        int getMoveCount() {
+            return moveCount;
+        }
+
+        long getStartedAt() {
+            return startedAt;
+        }
+    }
+
+    private Replay(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.remaining() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getShort(4) != VERSION) {
+            throw new IOException("Невідомий формат запису гри");
+        }
+        mode = modeOf(data);
+        size = data.get(7);
+        interval = data.getShort(8);
+        moveCount = data.getInt(10);
+        gameId = data.getLong(14);
+        startedAt = data.getLong(22);
+        if (size <= 0 || interval <= 0 || moveCount < 0 || data.limit() < keyframeOffset(moveCount / interval + 1)) {
+            throw new IOException("Пошкоджений запис гри");
+        }
+        layout = new byte[cellsPerState()];
+        data.get(HEADER_SIZE, layout);
+    }
+
+    static Replay open(Path path) throws IOException {
+        return new Replay(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    static Header readHeader(Path path) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+            }
+        }
+        if (data.hasRemaining() || data.getInt(0) != MAGIC || data.getShort(4) != VERSION) {
+            throw new IOException("Невідомий формат запису гри");
+        }
+        return new Header(path, modeOf(data), data.getInt(10), data.getLong(22));
+    }
+
+    private static GameMode modeOf(ByteBuffer data) {
+        GameMode[] modes = GameMode.values();
+        int modeIndex = data.get(6);
+        return modeIndex >= 0 && modeIndex < modes.length ? modes[modeIndex] : GameMode.VS_AI;
+    }
+
+    static List<Path> list() {
+        List<Path> result = new ArrayList<>();
+        Path dir = Path.of(DIRECTORY);
+        if (!Files.isDirectory(dir)) {
+            return result;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                result.add(path);
+            }
+        } catch (IOException ignored) {
+        }
+        result.sort((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()));
+        return result;
+    }
+
+    GameMode getMode() {
+        return mode;
+    }
+
+    int getBoardSize() {
+        return size;
+    }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    long getGameId() {
+        return gameId;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    Move moveAt(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int offset = HEADER_SIZE + layout.length + index * MOVE_SIZE;
+        return new Move(data.get(offset) == 0, data.get(offset + 1), data.get(offset + 2),
+                ShotOutcome.values()[data.get(offset + 3)]);
+    }
+
+    /** Board states after the first {@code move} moves have been played. */
+    Position positionAt(int move) {
+        int target = Math.max(0, Math.min(move, moveCount));
+        int keyframe = target / interval;
+        byte[] states = new byte[layout.length];
+        data.get(keyframeOffset(keyframe), states);
+        for (int i = keyframe * interval; i < target; i++) {
+            int offset = HEADER_SIZE + layout.length + i * MOVE_SIZE;
+            apply(layout, states, size, data.get(offset) != 0, data.get(offset + 1), data.get(offset + 2),
+                    ShotOutcome.values()[data.get(offset + 3)]);
+        }
+        return new Position(target, size, states);
+    }
+
+    private int cellsPerState() {
+        return 2 * size * size;
+    }
+
+    private int keyframeOffset(int keyframe) {
+        return HEADER_SIZE + cellsPerState() + moveCount * MOVE_SIZE + keyframe * cellsPerState();
+    }
+
+    /** Applies one move to {@code states}; shared by the recorder when it builds keyframes. */
+    static void apply(byte[] layout, byte[] states, int size, boolean enemyBoard, int row, int col,
+            ShotOutcome outcome) {
+        int base = enemyBoard ? size * size : 0;
+        int index = base + row * size + col;
+        switch (outcome) {
+            case MISS:
+                states[index] = STATE_MISS;
+                break;
+            case HIT:
+                states[index] = STATE_HIT;
+                break;
+            case SUNK:
+                states[index] = STATE_SUNK;
+                int ship = layout[index];
+                if (ship == 0) {
+                    return;
+                }
+                boolean[] sunk = new boolean[size * size];
+                for (int i = 0; i < size * size; i++) {
+                    if (layout[base + i] == ship) {
+                        states[base + i] = STATE_SUNK;
+                        sunk[i] = true;
+                    }
+                }
+                for (int i = 0; i < size * size; i++) {
+                    if (!sunk[i]) {
+                        continue;
+                    }
+                    int r = i / size;
+                    int c = i % size;
+                    for (int nr = Math.max(0, r - 1); nr <= Math.min(size - 1, r + 1); nr++) {
+                        for (int nc = Math.max(0, c - 1); nc <= Math.min(size - 1, c + 1); nc++) {
+                            int neighbor = base + nr * size + nc;
+                            if (layout[neighbor] == 0 && states[neighbor] == STATE_FOG) {
+                                states[neighbor] = STATE_MISS;
+                            }
+                        }
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
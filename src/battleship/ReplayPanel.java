@@ -0,0 +1,183 @@
+package battleship;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.text.DateFormat;
+import java.util.Date;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.SwingConstants;
+import javax.swing.Timer;
+
+/** Viewer for a recorded game: a move slider that seeks through keyframes plus timed playback. */
+class ReplayPanel extends JPanel {
+    private static final int BASE_DELAY_MS = 600;
+    private static final Integer[] SPEEDS = {1, 2, 4, 16};
+
+    private final Replay replay;
+    private final Language language;
+    private final BoardView playerView;
+    private final BoardView enemyView;
+    private final JSlider slider;
+    private final JLabel moveLabel;
+    private final JButton playButton;
+    private final JComboBox<Integer> speedCombo;
+    private final Timer playTimer;
+
+    ReplayPanel(Replay replay, Language language, Runnable onBack) {
+        super(new BorderLayout(10, 10));
+        this.replay = replay;
+        this.language = language;
+        int size = replay.getBoardSize();
+        playerView = createView(size);
+        enemyView = createView(size);
+
+        String started = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT)
+                .format(new Date(replay.getStartedAt()));
+        JLabel title = new JLabel(replay.getMode().name() + "  " + started, SwingConstants.CENTER);
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 16f));
+        JButton backButton = new JButton(Localization.t("game.backToMenu", language));
+        backButton.addActionListener(e -> {
+            stop();
+            onBack.run();
+        });
+        JPanel topPanel = new JPanel(new BorderLayout(8, 8));
+        topPanel.add(backButton, BorderLayout.WEST);
+        topPanel.add(title, BorderLayout.CENTER);
+
+        JPanel boards = new JPanel(new GridLayout(1, 2, 10, 10));
+        boards.add(new BoardScroller(playerView));
+        boards.add(new BoardScroller(enemyView));
+
+        slider = new JSlider(0, replay.getMoveCount(), 0);
+        slider.addChangeListener(e -> showMove(slider.getValue()));
+        moveLabel = new JLabel();
+        playButton = new JButton();
+        playButton.addActionListener(e -> togglePlayback());
+        speedCombo = new JComboBox<>(SPEEDS);
+        speedCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value,
+                    int index, boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, value + "×", index, isSelected, cellHasFocus);
+            }
+        });
+        speedCombo.addActionListener(e -> updateSpeed());
+
+        JButton first = new JButton("|<");
+        first.addActionListener(e -> slider.setValue(0));
+        JButton previous = new JButton("<");
+        previous.addActionListener(e -> slider.setValue(slider.getValue() - 1));
+        JButton next = new JButton(">");
+        next.addActionListener(e -> slider.setValue(slider.getValue() + 1));
+        JButton last = new JButton(">|");
+        last.addActionListener(e -> slider.setValue(replay.getMoveCount()));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.CENTER, 6, 0));
+        controls.add(first);
+        controls.add(previous);
+        controls.add(playButton);
+        controls.add(next);
+        controls.add(last);
+        controls.add(speedCombo);
+        controls.add(moveLabel);
+        JPanel bottomPanel = new JPanel(new BorderLayout(4, 4));
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(4, 6, 6, 6));
+        bottomPanel.add(slider, BorderLayout.NORTH);
+        bottomPanel.add(controls, BorderLayout.SOUTH);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(boards, BorderLayout.CENTER);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        playTimer = new Timer(BASE_DELAY_MS, e -> advance());
+        updatePlayButton();
+        showMove(0);
+    }
+
+    void stop() {
+        playTimer.stop();
+        updatePlayButton();
+    }
+
+    private static BoardView createView(int size) {
+        BoardView view = new BoardView(size);
+        view.setTimingName("paint:replay");
+        return view;
+    }
+
+    private void showMove(int move) {
+        Replay.Position position = replay.positionAt(move);
+        paintGrid(playerView, position, false);
+        paintGrid(enemyView, position, true);
+        moveLabel.setText(Localization.t("replay.move", language) + " " + position.getMove() + " / "
+                + replay.getMoveCount());
+        if (position.getMove() >= replay.getMoveCount()) {
+            stop();
+        }
+    }
+
+    private static void paintGrid(BoardView view, Replay.Position position, boolean enemyBoard) {
+        int size = view.getBoardSize();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                view.setCell(r, c, viewState(position.cell(enemyBoard, r, c)));
+            }
+        }
+    }
+
+    private static int viewState(int replayState) {
+        switch (replayState) {
+            case Replay.STATE_SHIP:
+                return BoardView.SHIP;
+            case Replay.STATE_MISS:
+                return BoardView.MISS;
+            case Replay.STATE_HIT:
+                return BoardView.HIT;
+            case Replay.STATE_SUNK:
+                return BoardView.SUNK;
+            default:
+                return BoardView.FOG;
+        }
+    }
+
+    private void togglePlayback() {
+        if (playTimer.isRunning()) {
+            stop();
+            return;
+        }
+        if (slider.getValue() >= replay.getMoveCount()) {
+            slider.setValue(0);
+        }
+        updateSpeed();
+        playTimer.start();
+        updatePlayButton();
+    }
+
+    private void advance() {
+        slider.setValue(slider.getValue() + 1);
+    }
+
+    private void updateSpeed() {
+        Integer speed = (Integer) speedCombo.getSelectedItem();
+        int delay = BASE_DELAY_MS / (speed == null ? 1 : speed);
+        playTimer.setDelay(delay);
+        playTimer.setInitialDelay(delay);
+    }
+
+    private void updatePlayButton() {
+        if (playButton != null) {
+            playButton.setText(Localization.t(playTimer != null && playTimer.isRunning() ? "replay.pause"
+                    : "replay.play", language));
+        }
+    }
+}
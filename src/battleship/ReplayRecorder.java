@@ -0,0 +1,175 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Collects the shot stream of a live game and writes it as a {@link Replay} once the game is over;
+ * the same game is appended to the {@link GameArchive}.
+ * Board states at attach time become keyframe 0, so games loaded from a save replay from there.
+ */
+class ReplayRecorder implements GameController.MoveListener {
+    private static final int KEYFRAME_INTERVAL = 16;
+
+    private final GameController controller;
+    private final byte[] initialStates;
+    private int baseMoveCount;
+    private byte[] moves = new byte[64 * Replay.MOVE_SIZE];
+    private int moveCount;
+    private int storedMoves;
+
+    private ReplayRecorder(GameController controller) {
+        this.controller = controller;
+        this.initialStates = new byte[2 * Board.SIZE * Board.SIZE];
+        captureInitialStates();
+    }
+
+    static ReplayRecorder attach(GameController controller) {
+        ReplayRecorder recorder = new ReplayRecorder(controller);
+        controller.addMoveListener(recorder);
+        return recorder;
+    }
+
+    @Override
+    public void onMove(int sequence, boolean onPlayerBoard, ShotResult result) {
+        if (moveCount * Replay.MOVE_SIZE == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        int offset = moveCount * Replay.MOVE_SIZE;
+        moves[offset] = (byte) (onPlayerBoard ? 0 : 1);
+        moves[offset + 1] = (byte) result.getRow();
+        moves[offset + 2] = (byte) result.getCol();
+        moves[offset + 3] = (byte) result.getOutcome().ordinal();
+        moveCount++;
+        storedMoves = moveCount;
+        if (controller.isGameOver()) {
+            finish();
+        }
+    }
+
+    @Override
+    public void onConcluded() {
+        finish();
+    }
+
+    private void finish() {
+        controller.removeMoveListener(this);
+        PersistenceExecutor.get().write(path(), encode());
+        archive();
+    }
+
+    /**
+     * Undo hides recorded moves and redo brings them back until a new move overwrites them; undoing
+     * past the start of the recording restarts it from the current position.
+     */
+    @Override
+    public void onHistoryChanged() {
+        int recorded = controller.getMoveCount() - baseMoveCount;
+        if (recorded >= 0 && recorded <= storedMoves) {
+            moveCount = recorded;
+        } else {
+            captureInitialStates();
+            moveCount = 0;
+            storedMoves = 0;
+        }
+    }
+
+    private void captureInitialStates() {
+        baseMoveCount = controller.getMoveCount();
+        captureStates(controller.getPlayerBoard(), 0);
+        captureStates(controller.getAiBoard(), Board.SIZE * Board.SIZE);
+    }
+
+    byte[] encode() {
+        int cells = Board.SIZE * Board.SIZE;
+        byte[] layout = layout();
+        int keyframes = moveCount / KEYFRAME_INTERVAL + 1;
+        ByteBuffer out = ByteBuffer.allocate(Replay.HEADER_SIZE + layout.length + moveCount * Replay.MOVE_SIZE
+                + keyframes * layout.length);
+        out.putInt(Replay.MAGIC)
+                .putShort((short) Replay.VERSION)
+                .put((byte) controller.getMode().ordinal())
+                .put((byte) Board.SIZE)
+                .putShort((short) KEYFRAME_INTERVAL)
+                .putInt(moveCount)
+                .putLong(controller.getGameId())
+                .putLong(controller.getStartedAt());
+        out.put(layout);
+        out.put(moves, 0, moveCount * Replay.MOVE_SIZE);
+        byte[] states = initialStates.clone();
+        for (int i = 0; i < cells * 2; i++) {
+            if (states[i] == Replay.STATE_FOG && layout[i] != 0) {
+                states[i] = Replay.STATE_SHIP;
+            }
+        }
+        out.put(states);
+        for (int i = 0; i < moveCount; i++) {
+            int offset = i * Replay.MOVE_SIZE;
+            Replay.apply(layout, states, Board.SIZE, moves[offset] != 0, moves[offset + 1], moves[offset + 2],
+                    ShotOutcome.values()[moves[offset + 3]]);
+            if ((i + 1) % KEYFRAME_INTERVAL == 0) {
+                out.put(states);
+            }
+        }
+        return out.array();
+    }
+
+    private void archive() {
+        GameArchive archive = GameArchive.get();
+        if (archive == null) {
+            return;
+        }
+        long duration = System.currentTimeMillis() - controller.getStartedAt();
+        try {
+            archive.append(controller.getGameId(), controller.getStartedAt(), controller.getMode(),
+                    controller.isPlayerOneWinner(), (int) Math.min(Integer.MAX_VALUE, duration), layout(),
+                    moves, moveCount);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private byte[] layout() {
+        int cells = Board.SIZE * Board.SIZE;
+        byte[] layout = new byte[2 * cells];
+        captureLayout(controller.getPlayerBoard(), layout, 0);
+        captureLayout(controller.getAiBoard(), layout, cells);
+        return layout;
+    }
+
+    private Path path() {
+        String name = controller.getStartedAt() + "-" + Long.toHexString(controller.getGameId());
+        return Path.of(Replay.DIRECTORY, name + Replay.EXTENSION);
+    }
+
+    private void captureStates(Board board, int offset) {
+        Cell[][] cells = board.getCells();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                Cell cell = cells[r][c];
+                int state = Replay.STATE_FOG;
+                if (cell.isShot()) {
+                    if (cell.hasShip()) {
+                        state = cell.getShip().isSunk() ? Replay.STATE_SUNK : Replay.STATE_HIT;
+                    } else if (cell.isRemoteHit()) {
+                        state = cell.isRemoteSunk() ? Replay.STATE_SUNK : Replay.STATE_HIT;
+                    } else {
+                        state = Replay.STATE_MISS;
+                    }
+                }
+                initialStates[offset + r * Board.SIZE + c] = (byte) state;
+            }
+        }
+    }
+
+    private static void captureLayout(Board board, byte[] layout, int offset) {
+        int number = 1;
+        for (Ship ship : board.getShips()) {
+            for (Cell cell : ship.getCells()) {
+                layout[offset + cell.getRow() * Board.SIZE + cell.getCol()] = (byte) number;
+            }
+            number++;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Append-only index of save metadata, so the load screen never has to open a {@code .sav} file.
+ * Later records for the same name replace earlier ones; the file is compacted once stale records
+ * outnumber live ones. A torn last record is cut off when the index is read. Without a usable
+ * index the saves are read once on a background thread to rebuild it; {@link #listAsync()} lets
+ * the EDT wait for that without blocking.
+ */
+class SaveCatalog {
+    static final int THUMB_EMPTY = 0;
+    static final int THUMB_SHIP = 1;
+    static final int THUMB_MISS = 2;
+    static final int THUMB_HIT = 3;
+
+    private static final Path INDEX = Path.of("saves", "index.dat");
+    private static final int THUMB_BYTES = Board.SIZE * Board.SIZE * 2 * 2 / 8;
+    private static final int COMPACT_THRESHOLD = 64;
+
+    private static Map<String, Entry> entries;
+    private static int recordCount;
+    private static CompletableFuture<Void> loading;
+
+    static final class Entry {
+        private final String name;
+        private final GameMode mode;
+        private final int moveCount;
+        private final int playerShipsLeft;
+        private final int enemyShipsLeft;
+        private final long timestamp;
+        private final byte[] thumbnail;
+
+        Entry(String name, GameMode mode, int moveCount, int playerShipsLeft, int enemyShipsLeft, long timestamp,
+                byte[] thumbnail) {
+            this.name = name;
+            this.mode = mode;
+            this.moveCount = moveCount;
+            this.playerShipsLeft = playerShipsLeft;
+            this.enemyShipsLeft = enemyShipsLeft;
+            this.timestamp = timestamp;
+            this.thumbnail = thumbnail;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        GameMode getMode() {
+            return mode;
+        }
+
+        int getMoveCount() {
+            return moveCount;
+        }
+
+        int getPlayerShipsLeft() {
+            return playerShipsLeft;
+        }
+
+        int getEnemyShipsLeft() {
+            return enemyShipsLeft;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        int thumbnailCell(boolean enemyBoard, int row, int col) {
+            int index = (enemyBoard ? Board.SIZE * Board.SIZE : 0) + row * Board.SIZE + col;
+            return (thumbnail[index >> 2] >> ((index & 3) * 2)) & 3;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /** All saves, newest first; waits for a rebuild in progress, so keep it off the EDT. */
+    static List<Entry> list() {
+        return listAsync().join();
+    }
+
+    /** Completes immediately when the index could be read, otherwise once the rebuild is done. */
+    static CompletableFuture<List<Entry>> listAsync() {
+        CompletableFuture<Void> ready;
+        synchronized (SaveCatalog.class) {
+            ensureLoaded();
+            ready = loading;
+        }
+        return ready.thenApply(ignored -> snapshot());
+    }
+
+    private static synchronized List<Entry> snapshot() {
+        List<Entry> result = new ArrayList<>(entries.values());
+        result.sort(Comparator.comparingLong(Entry::getTimestamp).reversed());
+        return result;
+    }
+
+    static synchronized void record(Entry entry) {
+        ensureLoaded();
+        entries.put(entry.getName(), entry);
+        append(entry.getName(), entry);
+    }
+
+    static Entry describe(String name, GameState state) {
+        return describe(SaveManager.savePath(name).getFileName().toString(), state, System.currentTimeMillis());
+    }
+
+    static synchronized void remove(String name) {
+        ensureLoaded();
+        String fileName = SaveManager.savePath(name).getFileName().toString();
+        if (entries.remove(fileName) != null) {
+            append(fileName, null);
+        }
+    }
+
+    private static void ensureLoaded() {
+        if (entries != null) {
+            return;
+        }
+        entries = new LinkedHashMap<>();
+        recordCount = 0;
+        if (Files.exists(INDEX) && readIndex()) {
+            loading = CompletableFuture.completedFuture(null);
+        } else {
+            entries.clear();
+            recordCount = 0;
+            loading = CompletableFuture.runAsync(SaveCatalog::rebuild, task -> {
+                Thread thread = new Thread(task, "save-catalog");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        }
+    }
+
+    /** Reads the index and cuts off a torn last record; false if the index is unusable. */
+    private static boolean readIndex() {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(INDEX);
+        } catch (IOException ex) {
+            return false;
+        }
+        ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(buffer);
+        int committed = 0;
+        try {
+            while (buffer.available() > 0) {
+                String name = in.readUTF();
+                Entry entry = in.readBoolean() ? readEntry(name, in) : null;
+                committed = bytes.length - buffer.available();
+                recordCount++;
+                if (entry == null) {
+                    entries.remove(name);
+                } else {
+                    entries.put(name, entry);
+                }
+            }
+        } catch (EOFException torn) {
+            truncateIndex(committed);
+        } catch (IOException | IllegalArgumentException ex) {
+            return false;
+        }
+        return true;
+    }
+
+    private static void truncateIndex(long size) {
+        try (FileChannel channel = FileChannel.open(INDEX, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static Entry readEntry(String name, DataInputStream in) throws IOException {
+        GameMode mode = GameMode.valueOf(in.readUTF());
+        int moveCount = in.readInt();
+        int playerLeft = in.readUnsignedByte();
+        int enemyLeft = in.readUnsignedByte();
+        long timestamp = in.readLong();
+        byte[] thumbnail = new byte[THUMB_BYTES];
+        in.readFully(thumbnail);
+        return new Entry(name, mode, moveCount, playerLeft, enemyLeft, timestamp, thumbnail);
+    }
+
+    /**
+     * Reads every save without holding the lock. Saves recorded meanwhile are newer and win; saves
+     * deleted meanwhile are left out.
+     */
+    private static void rebuild() {
+        Map<String, Entry> found = new LinkedHashMap<>();
+        for (String name : SaveManager.listSaves()) {
+            try {
+                GameState state = SaveManager.load(name);
+                long modified = Files.getLastModifiedTime(SaveManager.savePath(name)).toMillis();
+                found.put(name, describe(name, state, modified));
+            } catch (IOException | ClassNotFoundException | ClassCastException ignored) {
+            }
+        }
+        synchronized (SaveCatalog.class) {
+            for (Entry entry : found.values()) {
+                if (Files.exists(SaveManager.savePath(entry.getName()))) {
+                    entries.putIfAbsent(entry.getName(), entry);
+                }
+            }
+            compact();
+        }
+    }
+
+    private static void append(String name, Entry entry) {
+        if (recordCount >= COMPACT_THRESHOLD && recordCount > entries.size() * 2) {
+            compact();
+            return;
+        }
+        try {
+            Files.createDirectories(INDEX.getParent());
+            try (OutputStream file = Files.newOutputStream(INDEX, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                writeRecord(out, name, entry);
+            }
+            recordCount++;
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void compact() {
+        try {
+            Files.createDirectories(INDEX.getParent());
+            Path temp = INDEX.resolveSibling(INDEX.getFileName() + ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                for (Entry entry : entries.values()) {
+                    writeRecord(out, entry.getName(), entry);
+                }
+            }
+            Files.move(temp, INDEX, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recordCount = entries.size();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, String name, Entry entry) throws IOException {
+        out.writeUTF(name);
+        out.writeBoolean(entry != null);
+        if (entry == null) {
+            return;
+        }
+        out.writeUTF(entry.getMode().name());
+        out.writeInt(entry.getMoveCount());
+        out.writeByte(entry.getPlayerShipsLeft());
+        out.writeByte(entry.getEnemyShipsLeft());
+        out.writeLong(entry.getTimestamp());
+        out.write(entry.thumbnail);
+    }
+
+    private static Entry describe(String name, GameState state, long timestamp) {
+        byte[] thumbnail = new byte[THUMB_BYTES];
+        packBoard(thumbnail, 0, state.getPlayerOneBoard(), true);
+        packBoard(thumbnail, Board.SIZE * Board.SIZE, state.getPlayerTwoBoard(), false);
+        return new Entry(name, state.getMode(), state.getMoveCount(), shipsLeft(state.getPlayerOneBoard()),
+                shipsLeft(state.getPlayerTwoBoard()), timestamp, thumbnail);
+    }
+
+    private static void packBoard(byte[] thumbnail, int offset, Board board, boolean revealShips) {
+        Cell[][] cells = board.getCells();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                Cell cell = cells[r][c];
+                int value;
+                if (cell.isShot()) {
+                    value = cell.hasShip() || cell.isRemoteHit() ? THUMB_HIT : THUMB_MISS;
+                } else {
+                    value = revealShips && cell.hasShip() ? THUMB_SHIP : THUMB_EMPTY;
+                }
+                int index = offset + r * Board.SIZE + c;
+                thumbnail[index >> 2] |= (byte) (value << ((index & 3) * 2));
+            }
+        }
+    }
+
+    private static int shipsLeft(Board board) {
+        int left = 0;
+        for (Ship ship : board.getShips()) {
+            if (!ship.isSunk()) {
+                left++;
+            }
+        }
+        return left;
+    }
+}
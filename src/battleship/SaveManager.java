@@ -1,16 +1,17 @@
 package battleship;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.nio.file.Files;
+import java.io.Serializable;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 class SaveManager {
     private static final String SAVE_DIR = "saves";
@@ -32,18 +33,86 @@ class SaveManager {
         return result;
     }
 
-    static void save(GameState state, String name) throws IOException {
-        Files.createDirectories(Path.of(SAVE_DIR));
-        File file = new File(SAVE_DIR, name.endsWith(".sav") ? name : name + ".sav");
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-            out.writeObject(state);
+    static CompletableFuture<Void> save(GameState state, String name) {
+        return save(state, name, null);
+    }
+
+    static CompletableFuture<Void> save(GameState state, String name, Runnable afterCommit) {
+        byte[] data;
+        FlightEvents.SaveOperation event = new FlightEvents.SaveOperation();
+        event.begin();
+        long started = System.nanoTime();
+        try {
+            data = serialize(state);
+        } catch (IOException ex) {
+            commit(event, "save", name, 0, false);
+            return CompletableFuture.failedFuture(ex);
         }
+        Metrics.SAVE_SERIALIZE.recordSince(started);
+        commit(event, "save", name, data.length, true);
+        SaveCatalog.Entry entry = SaveCatalog.describe(name, state);
+        long submitted = System.nanoTime();
+        return PersistenceExecutor.get().write(savePath(name), data, () -> {
+            Metrics.SAVE_WRITE.recordSince(submitted);
+            SaveCatalog.record(entry);
+            if (afterCommit != null) {
+                afterCommit.run();
+            }
+        });
+    }
+
+    static CompletableFuture<Void> delete(String name) {
+        return PersistenceExecutor.get().write(savePath(name), null, () -> SaveCatalog.remove(name));
     }
 
     static GameState load(String name) throws IOException, ClassNotFoundException {
-        File file = new File(SAVE_DIR, name.endsWith(".sav") ? name : name + ".sav");
+        File file = savePath(name).toFile();
+        FlightEvents.SaveOperation event = new FlightEvents.SaveOperation();
+        event.begin();
+        long started = System.nanoTime();
+        boolean succeeded = false;
         try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-            return (GameState) in.readObject();
+            GameState state = (GameState) in.readObject();
+            succeeded = true;
+            return state;
+        } finally {
+            Metrics.SAVE_LOAD.recordSince(started);
+            commit(event, "load", name, file.length(), succeeded);
+        }
+    }
+
+    private static void commit(FlightEvents.SaveOperation event, String operation, String name, long bytes,
+            boolean succeeded) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.name = baseName(name);
+            event.bytes = bytes;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
         }
+        return bytes.toByteArray();
+    }
+
+    static String baseName(String name) {
+        return name.endsWith(".sav") ? name.substring(0, name.length() - 4) : name;
+    }
+
+    static Path saveDirectory() {
+        return Path.of(SAVE_DIR);
+    }
+
+    static Path savePath(String name) {
+        return Path.of(SAVE_DIR, baseName(name) + ".sav");
+    }
+
+    static Path journalPath(String name, long gameId, int segment) {
+        return Path.of(SAVE_DIR, baseName(name) + "-" + Long.toHexString(gameId) + "-" + segment + ".journal");
     }
 }
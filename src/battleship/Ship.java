@@ -30,6 +30,10 @@ class Ship implements Serializable {
         hits++;
     }
 
+    void setHits(int hits) {
+        this.hits = hits;
+    }
+
     void forceSunk() {
         hits = cells.size();
     }
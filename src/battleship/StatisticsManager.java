@@ -2,21 +2,22 @@ package battleship;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.file.Path;
 
 class StatisticsManager implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final String FILE = "stats.sav";
+    private static final Path RECORDS_DIR = Path.of("stats");
     private int vsAiWins;
     private int vsAiLosses;
     private int localWins;
     private int localLosses;
     private int onlineWins;
     private int onlineLosses;
+    private transient GameRecordStore records;
 
     static StatisticsManager load() {
         File f = new File(FILE);
@@ -31,8 +32,8 @@ class StatisticsManager implements Serializable {
     }
 
     void save() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(FILE))) {
-            out.writeObject(this);
+        try {
+            PersistenceExecutor.get().write(Path.of(FILE), SaveManager.serialize(this));
         } catch (IOException ignored) {
         }
     }
@@ -65,6 +66,17 @@ class StatisticsManager implements Serializable {
         save();
     }
 
+    void recordGame(GameRecord record) {
+        getRecords().append(record);
+    }
+
+    synchronized GameRecordStore getRecords() {
+        if (records == null) {
+            records = new GameRecordStore(RECORDS_DIR);
+        }
+        return records;
+    }
+
     void reset() {
         vsAiWins = vsAiLosses = localWins = localLosses = onlineWins = onlineLosses = 0;
         save();
@@ -0,0 +1,121 @@
+package battleship;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.VolatileImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pre-rendered board cells. Each state is rasterized once per cell size, font and display scale
+ * into an accelerated image and blitted afterwards, so repainting a board never lays out glyphs.
+ * Images whose contents the display drops are re-rendered on the next draw. EDT only.
+ */
+final class TileCache {
+    private static final int MAX_TILES = 256;
+    private static final Color GRID = Color.GRAY;
+
+    private final Map<Long, VolatileImage> tiles = new HashMap<>();
+    private GraphicsConfiguration config;
+    private Font font;
+    private double scaleX;
+    private double scaleY;
+
+    /** Draws the tile for {@code state} into the given cell rectangle, falling back to direct painting. */
+    void draw(Graphics2D g, GraphicsConfiguration gc, Font baseFont, int state, int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        AffineTransform transform = g.getTransform();
+        if (gc == null || (transform.getType() & ~(AffineTransform.TYPE_TRANSLATION
+                | AffineTransform.TYPE_UNIFORM_SCALE | AffineTransform.TYPE_GENERAL_SCALE)) != 0) {
+            render(g, baseFont, state, x, y, w, h);
+            return;
+        }
+        prepare(gc, baseFont, transform.getScaleX(), transform.getScaleY());
+        long key = ((long) w << 40) | ((long) h << 8) | state;
+        VolatileImage tile = tiles.get(key);
+        for (int attempt = 0; attempt < 3; attempt++) {
+            int status = tile == null ? VolatileImage.IMAGE_INCOMPATIBLE : tile.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (tiles.size() >= MAX_TILES) {
+                    flush();
+                }
+                tile = create(gc, w, h);
+                tiles.put(key, tile);
+                renderTile(tile, state, w, h);
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                renderTile(tile, state, w, h);
+            }
+            g.drawImage(tile, x, y, w, h, null);
+            if (!tile.contentsLost()) {
+                return;
+            }
+        }
+        render(g, baseFont, state, x, y, w, h);
+    }
+
+    void flush() {
+        for (VolatileImage tile : tiles.values()) {
+            tile.flush();
+        }
+        tiles.clear();
+    }
+
+    int size() {
+        return tiles.size();
+    }
+
+    private void prepare(GraphicsConfiguration gc, Font baseFont, double sx, double sy) {
+        if (gc != config || sx != scaleX || sy != scaleY || !Objects.equals(baseFont, font)) {
+            flush();
+            config = gc;
+            font = baseFont;
+            scaleX = sx;
+            scaleY = sy;
+        }
+    }
+
+    private VolatileImage create(GraphicsConfiguration gc, int w, int h) {
+        int pixelWidth = (int) Math.ceil(w * scaleX);
+        int pixelHeight = (int) Math.ceil(h * scaleY);
+        return gc.createCompatibleVolatileImage(Math.max(1, pixelWidth), Math.max(1, pixelHeight),
+                Transparency.OPAQUE);
+    }
+
+    private void renderTile(VolatileImage tile, int state, int w, int h) {
+        Graphics2D g = tile.createGraphics();
+        try {
+            g.scale(tile.getWidth() / (double) w, tile.getHeight() / (double) h);
+            render(g, font, state, 0, 0, w, h);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /** Paints one cell: fill, grid line on its top and left edge, and the shot glyph. */
+    static void render(Graphics2D g, Font baseFont, int state, int x, int y, int w, int h) {
+        g.setColor(BoardView.colorOf(state));
+        g.fillRect(x, y, w, h);
+        g.setColor(GRID);
+        g.drawLine(x, y, x + w - 1, y);
+        g.drawLine(x, y, x, y + h - 1);
+        String mark = state == BoardView.MISS ? "•" : state == BoardView.HIT || state == BoardView.SUNK ? "✕" : null;
+        if (mark == null || baseFont == null || h < 12) {
+            return;
+        }
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(baseFont.deriveFont(Font.BOLD, Math.max(8f, h * 0.5f)));
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(Color.BLACK);
+        g.drawString(mark, x + (w - metrics.stringWidth(mark)) / 2,
+                y + (h - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+}
@@ -0,0 +1,62 @@
+package battleship;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free map from a position hash to an evaluation. Each hash owns one slot chosen by
+ * its low bits; a newer entry simply replaces the old one, so memory stays fixed and readers never
+ * block writers. Values must be immutable because they are shared between threads and matches.
+ */
+final class TranspositionCache<V> {
+    private static final class Entry<V> {
+        private final long key;
+        private final V value;
+
+        private Entry(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry<V>> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    TranspositionCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    V get(long key) {
+        Entry<V> entry = slots.get(index(key));
+        if (entry != null && entry.key == key) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(long key, V value) {
+        slots.set(index(key), new Entry<>(key, value));
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    private int index(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
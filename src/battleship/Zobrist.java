@@ -0,0 +1,72 @@
+package battleship;
+
+import java.util.Random;
+
+/**
+ * Zobrist keys for the observable position of a board: what each cell shows to the shooter and
+ * which ships have been sunk. Keys come from a fixed seed, so equal positions hash equally in every
+ * match and process. {@link Board} keeps its hash up to date by XOR-ing keys as cells change.
+ */
+final class Zobrist {
+    static final int FOG = 0;
+    static final int MISS = 1;
+    static final int HIT = 2;
+    static final int SUNK = 3;
+
+    private static final int MAX_SHIPS_PER_LENGTH = Board.SIZE * Board.SIZE;
+    private static final long[] CELL_KEYS = new long[Board.SIZE * Board.SIZE * 4];
+    private static final long[] SUNK_KEYS = new long[(Board.SIZE + 1) * MAX_SHIPS_PER_LENGTH];
+
+    static {
+        Random random = new Random(0x5A0B215DL);
+        for (int i = 0; i < CELL_KEYS.length; i++) {
+            CELL_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < SUNK_KEYS.length; i++) {
+            SUNK_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /** What the shooter sees at {@code cell}; unshot ships stay {@link #FOG}. */
+    static int state(Cell cell) {
+        if (!cell.isShot()) {
+            return FOG;
+        }
+        if (cell.hasShip() || cell.isRemoteHit()) {
+            boolean sunk = cell.isRemoteSunk() || (cell.hasShip() && cell.getShip().isSunk());
+            return sunk ? SUNK : HIT;
+        }
+        return MISS;
+    }
+
+    static long cell(Cell cell, int state) {
+        return state == FOG ? 0 : CELL_KEYS[(cell.getRow() * Board.SIZE + cell.getCol()) * 4 + state];
+    }
+
+    /** Key for the {@code ordinal}-th sunk ship (0-based) of the given length. */
+    static long sunkShip(int length, int ordinal) {
+        int clampedLength = Math.min(length, Board.SIZE);
+        int clampedOrdinal = Math.min(ordinal, MAX_SHIPS_PER_LENGTH - 1);
+        return SUNK_KEYS[clampedLength * MAX_SHIPS_PER_LENGTH + clampedOrdinal];
+    }
+
+    static long hash(Board board) {
+        long hash = 0;
+        for (Cell[] row : board.getCells()) {
+            for (Cell cell : row) {
+                hash ^= cell(cell, state(cell));
+            }
+        }
+        int[] sunkByLength = new int[Board.SIZE + 1];
+        for (Ship ship : board.getShips()) {
+            if (ship.isSunk()) {
+                int length = Math.min(ship.size(), Board.SIZE);
+                hash ^= sunkShip(length, sunkByLength[length]++);
+            }
+        }
+        return hash;
+    }
+}